@@ -0,0 +1,55 @@
+package com.ead.authuser.benchmarks;
+
+import com.ead.authuser.DTOs.UserDTO;
+import com.ead.authuser.models.UserModel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCopyBenchmark {
+
+    private final UserDTO userDTO = new UserDTO();
+
+    @Setup
+    public void setup() {
+        userDTO.setUserId(UUID.randomUUID());
+        userDTO.setUsername("john.doe");
+        userDTO.setEmail("john.doe@example.com");
+        userDTO.setPassword("secret123");
+        userDTO.setFullName("John Doe");
+        userDTO.setPhoneNumber("5511999990000");
+        userDTO.setCpf("12345678900");
+        userDTO.setImageUrl("https://images.example.com/users/john.png");
+        userDTO.setVersion(3L);
+    }
+
+    @Benchmark
+    public UserModel copyProperties() {
+        var userModel = new UserModel();
+        BeanUtils.copyProperties(userDTO, userModel);
+        return userModel;
+    }
+
+    @Benchmark
+    public UserModel setters() {
+        var userModel = new UserModel();
+        userModel.setUserId(userDTO.getUserId());
+        userModel.setUsername(userDTO.getUsername());
+        userModel.setEmail(userDTO.getEmail());
+        userModel.setPassword(userDTO.getPassword());
+        userModel.setFullName(userDTO.getFullName());
+        userModel.setPhoneNumber(userDTO.getPhoneNumber());
+        userModel.setCpf(userDTO.getCpf());
+        userModel.setImageUrl(userDTO.getImageUrl());
+        userModel.setVersion(userDTO.getVersion());
+        return userModel;
+    }
+}
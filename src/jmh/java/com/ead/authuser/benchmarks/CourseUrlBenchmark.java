@@ -0,0 +1,38 @@
+package com.ead.authuser.benchmarks;
+
+import com.ead.authuser.services.impl.UtilsServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseUrlBenchmark {
+
+    private final UtilsServiceImpl utilsService = new UtilsServiceImpl();
+
+    private final UUID userId = UUID.randomUUID();
+
+    private final Pageable pageable = PageRequest.of(2, 10, Sort.by("courseId").ascending().and(Sort.by("name")));
+
+    @Benchmark
+    public String createUrlGetAllCoursesByUser() {
+        return utilsService.createUrlGetAllCoursesByUser(userId, pageable);
+    }
+
+    @Benchmark
+    public String replaceAll() {
+        // the previous implementation, compiles the pattern on every call
+        return "/courses?userId=" + userId + "&page=" + pageable.getPageNumber() +
+                "&size=" + pageable.getPageSize() + "&sort=" + pageable
+                .getSort().toString().replaceAll(": ", ",");
+    }
+}
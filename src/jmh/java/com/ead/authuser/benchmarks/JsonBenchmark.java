@@ -0,0 +1,114 @@
+package com.ead.authuser.benchmarks;
+
+import com.ead.authuser.DTOs.CourseDTO;
+import com.ead.authuser.DTOs.ResponsePageDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
+import com.ead.authuser.enums.CourseLevel;
+import com.ead.authuser.enums.CourseStatus;
+import com.ead.authuser.enums.UserStatus;
+import com.ead.authuser.enums.UserType;
+import com.ead.authuser.models.UserModel;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.hateoas.Link;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Course pages as CourseClient reads them, and user pages as the controllers write them.
+ * The ObjectMapper is built the same way Spring Boot builds the application one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final TypeReference<ResponsePageDTO<CourseDTO>> COURSE_PAGE =
+            new TypeReference<ResponsePageDTO<CourseDTO>>() {};
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[] coursePageJson;
+    private Page<UserModel> userPage;
+    private Slice<UserSummaryDTO> userSummarySlice;
+
+    @Setup
+    public void setup() throws IOException {
+        List<CourseDTO> courses = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            var course = new CourseDTO();
+            course.setCourseId(UUID.randomUUID());
+            course.setName("Course " + i);
+            course.setDescription("Description of course " + i);
+            course.setImageUrl("https://images.example.com/courses/" + i + ".png");
+            course.setCourseStatus(CourseStatus.INPROGRESS);
+            course.setCourseLevel(CourseLevel.BEGINNER);
+            course.setUserInstructor(UUID.randomUUID());
+            courses.add(course);
+        }
+        // serialized from a plain PageImpl, which is what the course service sends
+        coursePageJson = objectMapper.writeValueAsBytes(new PageImpl<>(courses, PageRequest.of(0, pageSize), 1000));
+
+        String baseUrl = "http://localhost:8087/ead-authuser/users/";
+        LocalDateTime now = LocalDateTime.now();
+        List<UserModel> users = new ArrayList<>(pageSize);
+        List<UserSummaryDTO> summaries = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            var user = new UserModel();
+            user.setUserId(UUID.randomUUID());
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuuabcdefghijklmnopqrstuvwxyz01234");
+            user.setFullName("User Number " + i);
+            user.setUserStatus(UserStatus.ACTIVE);
+            user.setUserType(UserType.STUDENT);
+            user.setPhoneNumber("5511999990000");
+            user.setCreationDate(now);
+            user.setLastUpdateDate(now);
+            user.setVersion(0L);
+            user.add(Link.of(baseUrl + user.getUserId()).withSelfRel());
+            users.add(user);
+
+            var summary = new UserSummaryDTO(user.getUserId(), user.getUsername(), user.getEmail(),
+                    user.getFullName(), user.getUserStatus(), user.getUserType(), user.getPhoneNumber(),
+                    user.getCpf(), user.getImageUrl(), now, now, 0L);
+            summary.add(Link.of(baseUrl + user.getUserId()).withSelfRel());
+            summaries.add(summary);
+        }
+        userPage = new PageImpl<>(users, PageRequest.of(0, pageSize), 1000);
+        userSummarySlice = new SliceImpl<>(summaries, PageRequest.of(0, pageSize), true);
+    }
+
+    @Benchmark
+    public ResponsePageDTO<CourseDTO> readCoursePage() throws IOException {
+        return objectMapper.readValue(coursePageJson, COURSE_PAGE);
+    }
+
+    @Benchmark
+    public byte[] writeUserModelPage() throws IOException {
+        return objectMapper.writeValueAsBytes(userPage);
+    }
+
+    @Benchmark
+    public byte[] writeUserSummarySlice() throws IOException {
+        return objectMapper.writeValueAsBytes(userSummarySlice);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ead.authuser.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old join + DISTINCT course filter with the EXISTS form on temporary copies of
+ * users/users_courses, with and without the users_courses indexes.
+ * Connects to EAD_BENCH_DB_URL (default the local ead-authuser database).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserCourseFilterBenchmark {
+
+    private static final String JOIN_PAGE = "SELECT DISTINCT u.user_id, u.username, u.email, u.full_name " +
+            "FROM bench_users u INNER JOIN bench_users_courses uc ON u.user_id = uc.user_user_id " +
+            "WHERE uc.course_id = ? ORDER BY u.user_id LIMIT 10";
+
+    private static final String JOIN_COUNT = "SELECT count(DISTINCT u.user_id) " +
+            "FROM bench_users u INNER JOIN bench_users_courses uc ON u.user_id = uc.user_user_id " +
+            "WHERE uc.course_id = ?";
+
+    private static final String EXISTS_PAGE = "SELECT u.user_id, u.username, u.email, u.full_name " +
+            "FROM bench_users u WHERE EXISTS (SELECT uc.id FROM bench_users_courses uc " +
+            "WHERE uc.user_user_id = u.user_id AND uc.course_id = ?) ORDER BY u.user_id LIMIT 10";
+
+    private static final String EXISTS_COUNT = "SELECT count(u.user_id) " +
+            "FROM bench_users u WHERE EXISTS (SELECT uc.id FROM bench_users_courses uc " +
+            "WHERE uc.user_user_id = u.user_id AND uc.course_id = ?)";
+
+    @Param("200000")
+    private int users;
+
+    @Param("50000")
+    private int courseSize;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+
+    private UUID courseId;
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = System.getenv().getOrDefault("EAD_BENCH_DB_URL", "jdbc:postgresql://localhost:5432/ead-authuser");
+        connection = DriverManager.getConnection(url,
+                System.getenv().getOrDefault("EAD_BENCH_DB_USER", "postgres"),
+                System.getenv().getOrDefault("EAD_BENCH_DB_PASSWORD", "postgres"));
+        courseId = UUID.randomUUID();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE bench_users (user_id uuid PRIMARY KEY, " +
+                    "username varchar(50), email varchar(50), full_name varchar(150))");
+            statement.execute("CREATE TEMPORARY TABLE bench_users_courses (id uuid PRIMARY KEY, " +
+                    "course_id uuid NOT NULL, user_user_id uuid NOT NULL)");
+            statement.execute("INSERT INTO bench_users SELECT gen_random_uuid(), 'user' || i, " +
+                    "'user' || i || '@x.com', 'User ' || i FROM generate_series(1, " + users + ") i");
+            // every user has a few subscriptions in small courses, courseSize of them are in the big one
+            statement.execute("INSERT INTO bench_users_courses SELECT gen_random_uuid(), gen_random_uuid(), user_id " +
+                    "FROM bench_users, generate_series(1, 3)");
+            statement.execute("INSERT INTO bench_users_courses SELECT gen_random_uuid(), '" + courseId + "', " +
+                    "user_id FROM bench_users ORDER BY random() LIMIT " + courseSize);
+
+            if (indexed) {
+                statement.execute("CREATE UNIQUE INDEX ON bench_users_courses (course_id, user_user_id)");
+                statement.execute("CREATE INDEX ON bench_users_courses (user_user_id)");
+            }
+            statement.execute("ANALYZE bench_users");
+            statement.execute("ANALYZE bench_users_courses");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long joinDistinctPage() throws SQLException {
+        return run(JOIN_PAGE);
+    }
+
+    @Benchmark
+    public long joinDistinctCount() throws SQLException {
+        return run(JOIN_COUNT);
+    }
+
+    @Benchmark
+    public long existsPage() throws SQLException {
+        return run(EXISTS_PAGE);
+    }
+
+    @Benchmark
+    public long existsCount() throws SQLException {
+        return run(EXISTS_COUNT);
+    }
+
+    private long run(String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, courseId);
+
+            long rows = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows += resultSet.getString(1).length();
+                }
+            }
+            return rows;
+        }
+    }
+}
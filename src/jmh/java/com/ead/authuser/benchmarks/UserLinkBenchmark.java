@@ -0,0 +1,72 @@
+package com.ead.authuser.benchmarks;
+
+import com.ead.authuser.components.UserLinkAssembler;
+import com.ead.authuser.controllers.UserController;
+import com.ead.authuser.models.UserModel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+public class UserLinkBenchmark {
+
+    @Param("1000")
+    private int pageSize;
+
+    private final UserLinkAssembler userLinkAssembler = new UserLinkAssembler();
+
+    private List<UserModel> users;
+
+    @Setup
+    public void setup() {
+        var request = new MockHttpServletRequest("GET", "/ead-authuser/users");
+        request.setServerName("localhost");
+        request.setServerPort(8087);
+        request.setContextPath("/ead-authuser");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            var user = new UserModel();
+            user.setUserId(UUID.randomUUID());
+            users.add(user);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<UserModel> methodOnPerRow() {
+        for (UserModel user : users) {
+            user.removeLinks();
+            user.add(linkTo(methodOn(UserController.class).getUserById(user.getUserId(), null)).withSelfRel());
+        }
+        return users;
+    }
+
+    @Benchmark
+    public List<UserModel> assembler() {
+        for (UserModel user : users) {
+            user.removeLinks();
+        }
+        userLinkAssembler.addSelfLinks(users, UserModel::getUserId);
+        return users;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ead.authuser.benchmarks;
+
+import com.ead.authuser.validation.UsernameConstraintImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsernameConstraintBenchmark {
+
+    @Param({"john.doe", "\tjohn.doe\t", "john doe", "a.rather.long.username.of.fifty.characters.in.size"})
+    private String username;
+
+    private final UsernameConstraintImpl usernameConstraint = new UsernameConstraintImpl();
+
+    @Benchmark
+    public boolean isValid() {
+        return usernameConstraint.isValid(username, null);
+    }
+}
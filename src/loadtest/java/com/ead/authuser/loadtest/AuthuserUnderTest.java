@@ -0,0 +1,99 @@
+package com.ead.authuser.loadtest;
+
+import com.ead.authuser.AuthuserApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// the application on a random port against an embedded (or given) Postgres and a stubbed course service
+final class AuthuserUnderTest implements AutoCloseable {
+
+    private final EmbeddedPostgres embeddedPostgres;
+    private final CourseServiceStub courseService;
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    private AuthuserUnderTest(EmbeddedPostgres embeddedPostgres, CourseServiceStub courseService,
+                              ConfigurableApplicationContext context) {
+        this.embeddedPostgres = embeddedPostgres;
+        this.courseService = courseService;
+        this.context = context;
+
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        this.baseUrl = "http://localhost:" + port + contextPath.replaceAll("/$", "");
+    }
+
+    static AuthuserUnderTest start(LoadTestOptions options) throws IOException {
+        EmbeddedPostgres embeddedPostgres = null;
+        CourseServiceStub courseService = null;
+        String jdbcUrl = options.db;
+
+        try {
+            if ("embedded".equals(options.db)) {
+                System.out.println("Starting embedded Postgres");
+                embeddedPostgres = EmbeddedPostgres.builder().start();
+                jdbcUrl = embeddedPostgres.getJdbcUrl(options.dbUser, "postgres");
+            }
+            courseService = new CourseServiceStub(options.stubCourses, options.stubDelay);
+
+            return new AuthuserUnderTest(embeddedPostgres, courseService,
+                    startApplication(options, jdbcUrl, courseService.url()));
+        } catch (IOException | RuntimeException exception) {
+            if (courseService != null) {
+                courseService.close();
+            }
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+            throw exception;
+        }
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+            courseService.close();
+        } finally {
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options, String jdbcUrl,
+                                                                   String courseServiceUrl) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.profiles.active=dev",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + options.dbUser,
+                "--spring.datasource.password=" + options.dbPassword,
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.ead-course-service[0].uri=" + courseServiceUrl,
+                // per-request DEBUG/TRACE logging and SQL echo would dominate what is being measured
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.com.ead=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate=WARN"));
+        if ("embedded".equals(options.db)) {
+            // a fresh embedded cluster is owned by this user, so it can also run the owner script once the tables exist
+            args.add("--spring.sql.init.mode=always");
+            args.add("--spring.sql.init.schema-locations=classpath:db/owner/search-indexes.sql");
+            args.add("--spring.jpa.defer-datasource-initialization=true");
+        }
+        options.appProperties.forEach((name, value) -> args.add("--" + name + "=" + value));
+
+        return new SpringApplicationBuilder(AuthuserApplication.class).run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ead.authuser.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+// stands in for ead-course-service: course pages for profile reads and 204 for user deletions
+final class CourseServiceStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final byte[] coursePage;
+    private final Duration delay;
+
+    CourseServiceStub(int courses, Duration delay) throws IOException {
+        this.delay = delay;
+        this.coursePage = coursePage(courses).getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            if (!delay.isZero()) {
+                Thread.sleep(delay.toMillis());
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if ("GET".equals(exchange.getRequestMethod()) && path.endsWith("/courses")) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, coursePage.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(coursePage);
+                }
+            } else if ("DELETE".equals(exchange.getRequestMethod()) && path.contains("/courses/users/")) {
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String coursePage(int courses) {
+        var content = new StringBuilder();
+        for (int i = 0; i < courses; i++) {
+            if (i > 0) {
+                content.append(',');
+            }
+            content.append("{\"courseId\":\"").append(UUID.randomUUID())
+                    .append("\",\"name\":\"Course ").append(i)
+                    .append("\",\"description\":\"Stubbed course\",\"imageUrl\":\"https://images.local/").append(i)
+                    .append(".png\",\"courseStatus\":\"INPROGRESS\",\"courseLevel\":\"BEGINNER\",\"userInstructor\":\"")
+                    .append(UUID.randomUUID()).append("\"}");
+        }
+        return "{\"content\":[" + content + "],\"number\":0,\"size\":10,\"totalElements\":" + courses +
+                ",\"pageable\":\"INSTANCE\",\"last\":true,\"totalPages\":1,\"sort\":{\"sorted\":false," +
+                "\"unsorted\":true,\"empty\":true},\"first\":true,\"empty\":" + (courses == 0) + "}";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ead.authuser.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a CSV or NDJSON file of --rows users, uploads it to POST /auth/signup/import and polls the job
+ * until it finishes, then reports rows/sec for the whole import (parse, validate, hash, insert).
+ *
+ * <pre>mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.ead.authuser.loadtest.ImportBenchmark
+ *     -Dloadtest.args="--rows=1000000 --ead.password.bcrypt.cost=4"</pre>
+ *
+ * Every row is BCrypt-hashed, so throughput is bound by the cost and the bulk password hash pool size
+ * (ead.password.bulk-hash.pool-size, half the cores by default).
+ */
+public final class ImportBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+
+    private final LoadTestOptions options;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ImportBenchmark(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && ("--help".equals(args[0]) || "-h".equals(args[0]))) {
+            System.out.println(LoadTestOptions.usage());
+            return;
+        }
+        new ImportBenchmark(LoadTestOptions.parse(args)).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(options.reportDir);
+        Path file = options.reportDir.resolve("import-" + options.rows + "." + options.format);
+
+        long generateStart = System.nanoTime();
+        generate(file);
+        System.out.printf("Generated %d rows (%d MB) in %s in %.1f s%n", options.rows, Files.size(file) >> 20,
+                file, seconds(System.nanoTime() - generateStart));
+
+        try (var authuser = AuthuserUnderTest.start(options)) {
+            long uploadStart = System.nanoTime();
+            UUID jobId = upload(authuser.baseUrl(), file);
+            System.out.printf("Uploaded in %.1f s, job %s%n", seconds(System.nanoTime() - uploadStart), jobId);
+
+            JsonNode job = await(authuser.baseUrl(), jobId, uploadStart);
+            double elapsed = seconds(System.nanoTime() - uploadStart);
+            long processed = job.path("processed").asLong();
+
+            System.out.println();
+            System.out.printf("status     %s%n", job.path("status").asText());
+            System.out.printf("processed  %d (created %d, conflicts %d, invalid %d)%n", processed,
+                    job.path("created").asLong(), job.path("conflicts").asLong(), job.path("invalid").asLong());
+            System.out.printf("elapsed    %.1f s including upload%n", elapsed);
+            System.out.printf("throughput %.0f rows/s%n", processed / elapsed);
+            if (job.hasNonNull("failureMessage")) {
+                System.out.println("failure    " + job.path("failureMessage").asText());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void generate(Path file) throws IOException {
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+        boolean csv = "csv".equals(options.format);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (csv) {
+                writer.write("username,email,password,fullName\n");
+            }
+            for (long i = 1; i <= options.rows; i++) {
+                String username = "imp" + runId + "x" + i;
+                // longer than the 50 character column, passes validation and is rejected by the database
+                String email = options.invalidEvery > 0 && i % options.invalidEvery == 0
+                        ? username + "-" + "x".repeat(50) + "@import.local"
+                        : username + "@import.local";
+
+                if (csv) {
+                    writer.write(username + "," + email + ",secret123,\"Imported, User " + i + "\"\n");
+                } else {
+                    writer.write("{\"username\":\"" + username + "\",\"email\":\"" + email +
+                            "\",\"password\":\"secret123\",\"fullName\":\"Imported User " + i + "\"}\n");
+                }
+            }
+        }
+    }
+
+    private UUID upload(String baseUrl, Path file) throws IOException, InterruptedException {
+        String boundary = "ead-import-" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"" + file.getFileName() + "\"\r\n" +
+                "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        long contentLength = head.length + Files.size(file) + tail.length;
+
+        // streamed from disk, a 1M-row file is too large to buffer comfortably
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> multipart(head, file, tail)), contentLength);
+
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/auth/signup/import?format=" + options.format.toUpperCase()))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(body)
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 202) {
+            throw new IllegalStateException("Import was not accepted: " + response.statusCode() + " " + response.body());
+        }
+        return UUID.fromString(objectMapper.readTree(response.body()).path("jobId").asText());
+    }
+
+    private JsonNode await(String baseUrl, UUID jobId, long startNanos) throws IOException, InterruptedException {
+        HttpRequest poll = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/signup/import/" + jobId)).GET().build();
+        long nextProgress = System.nanoTime() + PROGRESS_INTERVAL.toNanos();
+
+        while (true) {
+            JsonNode job = objectMapper.readTree(httpClient.send(poll, HttpResponse.BodyHandlers.ofString()).body());
+            if (!"RUNNING".equals(job.path("status").asText())) {
+                return job;
+            }
+            if (System.nanoTime() >= nextProgress) {
+                long processed = job.path("processed").asLong();
+                System.out.printf("  %d / %d rows, %.0f rows/s%n", processed, options.rows,
+                        processed / seconds(System.nanoTime() - startNanos));
+                nextProgress += PROGRESS_INTERVAL.toNanos();
+            }
+            TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL.toMillis());
+        }
+    }
+
+    private static InputStream multipart(byte[] head, Path file, byte[] tail) {
+        try {
+            return new SequenceInputStream(Collections.enumeration(List.of(
+                    new ByteArrayInputStream(head), Files.newInputStream(file), new ByteArrayInputStream(tail))));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
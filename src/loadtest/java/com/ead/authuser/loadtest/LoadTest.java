@@ -0,0 +1,219 @@
+package com.ead.authuser.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots authuser against an embedded (or given) Postgres and a stubbed course service, seeds users,
+ * then drives the configured request mix and reports latency percentiles per endpoint.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--concurrency=32 --duration=60s"</pre>
+ */
+public final class LoadTest {
+
+    private static final int SEED_BATCH = 500;
+
+    private final LoadTestOptions options;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+        options.mix.keySet().forEach(operation -> stats.put(operation, new EndpointStats(operation)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && ("--help".equals(args[0]) || "-h".equals(args[0]))) {
+            System.out.println(LoadTestOptions.usage());
+            return;
+        }
+        new LoadTest(LoadTestOptions.parse(args)).run();
+        // the HTTP client and the stub keep non-daemon threads around
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        try (var authuser = AuthuserUnderTest.start(options)) {
+            System.out.println("Seeding " + options.users + " users");
+            var workload = new Workload(authuser.baseUrl(), seedUsers(authuser.baseUrl()), options.batchSize);
+
+            drive(workload);
+            report();
+        }
+    }
+
+    private List<UUID> seedUsers(String baseUrl) throws IOException, InterruptedException {
+        List<UUID> userIds = new ArrayList<>(options.users);
+        String prefix = "seed" + Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36) + "x";
+
+        for (int from = 0; from < options.users; from += SEED_BATCH) {
+            var body = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + SEED_BATCH, options.users); i++) {
+                if (i > from) {
+                    body.append(',');
+                }
+                body.append("{\"username\":\"").append(prefix).append(i)
+                        .append("\",\"email\":\"").append(prefix).append(i)
+                        .append("@loadtest.local\",\"password\":\"secret123\",\"fullName\":\"Seeded User ")
+                        .append(i).append("\"}");
+            }
+            body.append(']');
+
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+                            URI.create(baseUrl + "/auth/signup/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                if ("CREATED".equals(result.path("status").asText())) {
+                    userIds.add(UUID.fromString(result.path("userId").asText()));
+                }
+            }
+        }
+        return userIds;
+    }
+
+    private void drive(Workload workload) throws InterruptedException {
+        Operation[] operations = options.mix.keySet().toArray(new Operation[0]);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += options.mix.get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        int weightSum = totalWeight;
+
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + options.warmup.toNanos();
+        long endNanos = measureFromNanos + options.duration.toNanos();
+        long intervalNanos = options.rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * options.concurrency / options.rate) : 0;
+
+        System.out.printf("Running %d workers, %s warmup then %s recorded, %s%n", options.concurrency,
+                options.warmup, options.duration,
+                intervalNanos > 0 ? "open loop at " + options.rate + " req/s" : "closed loop");
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        for (int worker = 0; worker < options.concurrency; worker++) {
+            // workers start staggered so an open-loop schedule doesn't fire in lockstep
+            long firstSend = startNanos + (intervalNanos * worker) / options.concurrency;
+            workers.execute(() -> {
+                long intendedNanos = firstSend;
+                while (true) {
+                    if (intervalNanos > 0) {
+                        long wait = intendedNanos - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        intendedNanos = System.nanoTime();
+                    }
+                    if (intendedNanos >= endNanos) {
+                        return;
+                    }
+
+                    int pick = ThreadLocalRandom.current().nextInt(weightSum);
+                    int index = 0;
+                    while (cumulativeWeights[index] <= pick) {
+                        index++;
+                    }
+                    Operation operation = operations[index];
+
+                    execute(workload, operation, intendedNanos, intendedNanos >= measureFromNanos);
+                    intendedNanos += intervalNanos;
+                }
+            });
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(options.duration.toMillis() + 60_000, TimeUnit.MILLISECONDS);
+    }
+
+    private void execute(Workload workload, Operation operation, long intendedNanos, boolean recorded) {
+        EndpointStats endpointStats = stats.get(operation);
+        try {
+            HttpResponse<Void> response = httpClient.send(operation.request(workload),
+                    HttpResponse.BodyHandlers.discarding());
+            // measured from the intended send time, so a stalled server shows up as latency instead of fewer samples
+            long latencyNanos = System.nanoTime() - intendedNanos;
+
+            if (!recorded) {
+                return;
+            }
+            if (response.statusCode() == operation.expectedStatus()) {
+                endpointStats.recordSuccess(latencyNanos);
+            } else {
+                endpointStats.recordError("HTTP " + response.statusCode());
+            }
+        } catch (IOException exception) {
+            if (recorded) {
+                endpointStats.recordError(exception.getClass().getSimpleName());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report() throws IOException {
+        Files.createDirectories(options.reportDir);
+        double seconds = options.duration.toMillis() / 1000.0;
+
+        System.out.println();
+        System.out.printf("%-44s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint (latency ms)", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max");
+
+        for (EndpointStats endpointStats : stats.values()) {
+            Histogram histogram = endpointStats.histogram();
+            Map<String, Long> errors = endpointStats.errors();
+            long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+
+            System.out.printf("%-44s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpointStats.operation().endpoint(), histogram.getTotalCount(), errorCount,
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+            if (!errors.isEmpty()) {
+                System.out.println("    errors " + errors);
+            }
+
+            Path report = options.reportDir.resolve(endpointStats.operation().optionName() + ".hgrm");
+            try (var out = new PrintStream(Files.newOutputStream(report))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println();
+        System.out.println("Percentile distributions (.hgrm, milliseconds) written to " + options.reportDir.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
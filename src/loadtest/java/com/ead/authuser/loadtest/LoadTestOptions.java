@@ -0,0 +1,129 @@
+package com.ead.authuser.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class LoadTestOptions {
+
+    int concurrency = 16;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(30);
+    // total requests per second across all workers, 0 runs closed loop as fast as responses come back
+    double rate = 0;
+    int users = 1000;
+    int batchSize = 50;
+    String db = "embedded";
+    String dbUser = "postgres";
+    String dbPassword = "postgres";
+    int stubCourses = 3;
+    Duration stubDelay = Duration.ZERO;
+    Path reportDir = Paths.get("target", "loadtest");
+    // ImportBenchmark only
+    long rows = 1_000_000;
+    String format = "csv";
+    int invalidEvery = 0;
+    final Map<Operation, Integer> mix = new LinkedHashMap<>();
+    // anything with a dot in its name (ead.*, spring.*, server.*) is handed to the application untouched
+    final Map<String, String> appProperties = new LinkedHashMap<>();
+
+    private LoadTestOptions() {
+        mix.put(Operation.SIGNUP, 1);
+        mix.put(Operation.LIST_USERS, 4);
+        mix.put(Operation.GET_USER, 10);
+        mix.put(Operation.SUBSCRIBE, 2);
+        mix.put(Operation.SUBSCRIBE_BATCH, 1);
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        var options = new LoadTestOptions();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg + "\n" + usage());
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+
+            switch (name) {
+                case "concurrency": options.concurrency = Integer.parseInt(value); break;
+                case "warmup": options.warmup = parseDuration(value); break;
+                case "duration": options.duration = parseDuration(value); break;
+                case "rate": options.rate = Double.parseDouble(value); break;
+                case "users": options.users = Integer.parseInt(value); break;
+                case "batch-size": options.batchSize = Integer.parseInt(value); break;
+                case "db": options.db = value; break;
+                case "db-user": options.dbUser = value; break;
+                case "db-password": options.dbPassword = value; break;
+                case "stub-courses": options.stubCourses = Integer.parseInt(value); break;
+                case "stub-delay": options.stubDelay = parseDuration(value); break;
+                case "report-dir": options.reportDir = Paths.get(value); break;
+                case "mix": options.parseMix(value); break;
+                case "rows": options.rows = Long.parseLong(value); break;
+                case "format": options.format = value.toLowerCase(); break;
+                case "invalid-every": options.invalidEvery = Integer.parseInt(value); break;
+                default:
+                    if (!name.contains(".")) {
+                        throw new IllegalArgumentException("Unknown option --" + name + "\n" + usage());
+                    }
+                    options.appProperties.put(name, value);
+            }
+        }
+
+        if (options.concurrency < 1 || options.users < options.batchSize || options.batchSize < 1) {
+            throw new IllegalArgumentException("concurrency and batch-size must be positive and users >= batch-size");
+        }
+        if (options.rows < 1 || !("csv".equals(options.format) || "ndjson".equals(options.format))) {
+            throw new IllegalArgumentException("rows must be positive and format csv or ndjson");
+        }
+        return options;
+    }
+
+    private void parseMix(String value) {
+        mix.clear();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("[=:]");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        } else if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        } else if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    static String usage() {
+        return "Options (all --name=value):\n" +
+                "  concurrency     worker threads, default 16\n" +
+                "  warmup          e.g. 10s, not recorded, default 10s\n" +
+                "  duration        recorded run, default 30s\n" +
+                "  rate            total requests/s with latency taken from the intended send time, default 0 (closed loop)\n" +
+                "  mix             weights per operation, default signup=1,listUsers=4,getUser=10,subscribe=2,subscribeBatch=1\n" +
+                "                  operations: " + Operation.names() + "\n" +
+                "  users           users seeded before the run, default 1000\n" +
+                "  batch-size      users per subscribeBatch request, default 50\n" +
+                "  db              'embedded' or a jdbc:postgresql url, default embedded\n" +
+                "  db-user, db-password\n" +
+                "  stub-courses    courses returned by the stubbed course service, default 3\n" +
+                "  stub-delay      added latency of the stubbed course service, default 0ms\n" +
+                "  report-dir      where the .hgrm files and generated import files go, default target/loadtest\n" +
+                "  rows            ImportBenchmark: rows in the generated file, default 1000000\n" +
+                "  format          ImportBenchmark: csv or ndjson, default csv\n" +
+                "  invalid-every   ImportBenchmark: every Nth row has an email too long for the column, default 0 (none)\n" +
+                "  <a.property>    passed to the application, e.g. --ead.password.bcrypt.cost=8";
+    }
+}
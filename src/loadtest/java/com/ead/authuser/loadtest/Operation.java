@@ -0,0 +1,90 @@
+package com.ead.authuser.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+enum Operation {
+
+    SIGNUP("signup", "POST /auth/signup", 201) {
+        @Override
+        HttpRequest request(Workload workload) {
+            String username = workload.nextUsername();
+            return workload.post("/auth/signup", "{\"username\":\"" + username + "\",\"email\":\"" + username +
+                    "@loadtest.local\",\"password\":\"secret123\",\"fullName\":\"Load Test\"}");
+        }
+    },
+    LIST_USERS("listUsers", "GET /users", 200) {
+        @Override
+        HttpRequest request(Workload workload) {
+            int page = ThreadLocalRandom.current().nextInt(Math.max(1, workload.userCount() / 10));
+            return workload.get("/users?page=" + page + "&size=10");
+        }
+    },
+    GET_USER("getUser", "GET /users/{userId}", 200) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/users/" + workload.randomUserId());
+        }
+    },
+    SUBSCRIBE("subscribe", "POST /users/{userId}/courses/subscription", 201) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.post("/users/" + workload.randomUserId() + "/courses/subscription",
+                    "{\"courseId\":\"" + UUID.randomUUID() + "\"}");
+        }
+    },
+    SUBSCRIBE_BATCH("subscribeBatch", "POST /users/courses/subscription", 200) {
+        @Override
+        HttpRequest request(Workload workload) {
+            String userIds = workload.randomUserIds().stream()
+                    .map(userId -> "\"" + userId + "\"")
+                    .collect(Collectors.joining(","));
+            return workload.post("/users/courses/subscription",
+                    "{\"courseId\":\"" + UUID.randomUUID() + "\",\"userIds\":[" + userIds + "]}");
+        }
+    },
+    PROFILE("profile", "GET /users/{userId}/profile", 200) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/users/" + workload.randomUserId() + "/profile");
+        }
+    };
+
+    private final String optionName;
+    private final String endpoint;
+    private final int expectedStatus;
+
+    Operation(String optionName, String endpoint, int expectedStatus) {
+        this.optionName = optionName;
+        this.endpoint = endpoint;
+        this.expectedStatus = expectedStatus;
+    }
+
+    abstract HttpRequest request(Workload workload);
+
+    String optionName() {
+        return optionName;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    int expectedStatus() {
+        return expectedStatus;
+    }
+
+    static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.optionName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + name + ", expected one of " + names()));
+    }
+
+    static String names() {
+        return Arrays.stream(values()).map(Operation::optionName).collect(Collectors.joining(", "));
+    }
+}
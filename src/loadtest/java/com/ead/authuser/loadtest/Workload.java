@@ -0,0 +1,60 @@
+package com.ead.authuser.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class Workload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final List<UUID> userIds;
+    private final int batchSize;
+    private final String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+    private final AtomicLong signups = new AtomicLong();
+
+    Workload(String baseUrl, List<UUID> userIds, int batchSize) {
+        this.baseUrl = baseUrl;
+        this.userIds = userIds;
+        this.batchSize = batchSize;
+    }
+
+    String nextUsername() {
+        return "lt" + runId + "x" + signups.incrementAndGet();
+    }
+
+    int userCount() {
+        return userIds.size();
+    }
+
+    UUID randomUserId() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    List<UUID> randomUserIds() {
+        int start = ThreadLocalRandom.current().nextInt(userIds.size() - batchSize + 1);
+        return new ArrayList<>(userIds.subList(start, start + batchSize));
+    }
+
+    HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ead.authuser.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDTO<T> extends RepresentationModel<CursorPageDTO<T>> {
+
+    private List<T> content;
+    private int size;
+    private int numberOfElements;
+    private String nextCursor;
+
+    public CursorPageDTO(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.numberOfElements = content.size();
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ead.authuser.DTOs;
+
+import com.ead.authuser.enums.ImportFormat;
+import com.ead.authuser.enums.ImportStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobDTO {
+
+    private UUID jobId;
+    private String fileName;
+    private ImportFormat format;
+    private ImportStatus status;
+    private long processed;
+    private long created;
+    private long conflicts;
+    private long invalid;
+    private String failureMessage;
+    private List<SignupResultDTO> errors = new ArrayList<>();
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss-3:00")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss-3:00")
+    private LocalDateTime finishedAt;
+}
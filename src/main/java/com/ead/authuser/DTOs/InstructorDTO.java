@@ -10,4 +10,6 @@ public class InstructorDTO {
 
     @NotNull
     private UUID userId;
+
+    private Long version;
 }
@@ -0,0 +1,15 @@
+package com.ead.authuser.DTOs;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+public class LoginDTO {
+
+    @NotBlank
+    private String username;
+
+    @NotBlank
+    private String password;
+}
@@ -0,0 +1,12 @@
+package com.ead.authuser.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PasswordCheckDTO {
+
+    private boolean matches;
+    private boolean needsRehash;
+}
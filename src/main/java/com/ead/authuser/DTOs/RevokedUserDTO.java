@@ -0,0 +1,14 @@
+package com.ead.authuser.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class RevokedUserDTO {
+
+    private UUID userId;
+    private long revokedAt;
+}
@@ -0,0 +1,22 @@
+package com.ead.authuser.DTOs;
+
+import com.ead.authuser.enums.SignupStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SignupResultDTO {
+
+    private int index;
+    private String username;
+    private SignupStatus status;
+    private String message;
+    private UUID userId;
+}
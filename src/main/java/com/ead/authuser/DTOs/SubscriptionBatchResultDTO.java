@@ -0,0 +1,20 @@
+package com.ead.authuser.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubscriptionBatchResultDTO {
+
+    private UUID courseId;
+    private int requested;
+    private int created;
+    private int existing;
+    private List<UUID> notFoundUserIds;
+}
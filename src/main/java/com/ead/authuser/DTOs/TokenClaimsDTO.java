@@ -0,0 +1,19 @@
+package com.ead.authuser.DTOs;
+
+import com.ead.authuser.enums.UserStatus;
+import com.ead.authuser.enums.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class TokenClaimsDTO {
+
+    private UUID userId;
+    private UserType userType;
+    private UserStatus userStatus;
+    private long issuedAt;
+    private long expiresAt;
+}
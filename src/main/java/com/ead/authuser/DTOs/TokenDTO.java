@@ -0,0 +1,13 @@
+package com.ead.authuser.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenDTO {
+
+    private String accessToken;
+    private String tokenType;
+    private long expiresIn;
+}
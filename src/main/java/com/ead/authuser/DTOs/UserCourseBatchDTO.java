@@ -0,0 +1,18 @@
+package com.ead.authuser.DTOs;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class UserCourseBatchDTO {
+
+    @NotNull
+    private UUID courseId;
+
+    @NotEmpty
+    private List<@NotNull UUID> userIds;
+}
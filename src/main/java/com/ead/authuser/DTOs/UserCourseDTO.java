@@ -1,13 +1,23 @@
 package com.ead.authuser.DTOs;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotNull;
 import java.util.UUID;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserCourseDTO {
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private UUID id;
+
     private UUID userId;
 
     @NotNull
@@ -0,0 +1,17 @@
+package com.ead.authuser.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserCursorDTO {
+
+    private LocalDateTime creationDate;
+    private UUID userId;
+}
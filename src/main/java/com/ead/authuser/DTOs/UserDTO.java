@@ -19,6 +19,8 @@ public class UserDTO {
         public static interface UserPut {}
         public static interface PasswordPut {}
         public static interface ImagePut {}
+        public static interface UserPatch {}
+        public static interface PasswordPatch {}
     }
 
     private UUID userId;
@@ -34,26 +36,33 @@ public class UserDTO {
     @JsonView(UserView.RegistrationPost.class)
     private String email;
 
-    @NotBlank(groups = {UserView.RegistrationPost.class, UserView.PasswordPut.class})
-    @Size(min = 6, max = 20, groups = {UserView.RegistrationPost.class, UserView.PasswordPut.class})
-    @JsonView({UserView.RegistrationPost.class, UserView.PasswordPut.class})
+    @NotBlank(groups = {UserView.RegistrationPost.class, UserView.PasswordPut.class, UserView.PasswordPatch.class})
+    @Size(min = 6, max = 20, groups = {UserView.RegistrationPost.class, UserView.PasswordPut.class,
+            UserView.PasswordPatch.class})
+    @JsonView({UserView.RegistrationPost.class, UserView.PasswordPut.class, UserView.PasswordPatch.class})
     private String password;
 
-    @NotBlank(groups = UserView.PasswordPut.class)
-    @Size(min = 6, max = 20, groups = UserView.PasswordPut.class)
-    @JsonView(UserView.PasswordPut.class)
+    @NotBlank(groups = {UserView.PasswordPut.class, UserView.PasswordPatch.class})
+    @Size(min = 6, max = 20, groups = {UserView.PasswordPut.class, UserView.PasswordPatch.class})
+    @JsonView({UserView.PasswordPut.class, UserView.PasswordPatch.class})
     private String oldPassword;
 
-    @JsonView({UserView.RegistrationPost.class, UserView.UserPut.class})
+    @Size(max = 150, groups = UserView.UserPatch.class)
+    @JsonView({UserView.RegistrationPost.class, UserView.UserPut.class, UserView.UserPatch.class})
     private String fullName;
 
-    @JsonView({UserView.RegistrationPost.class, UserView.UserPut.class})
+    @Size(max = 20, groups = UserView.UserPatch.class)
+    @JsonView({UserView.RegistrationPost.class, UserView.UserPut.class, UserView.UserPatch.class})
     private String phoneNumber;
 
-    @JsonView({UserView.RegistrationPost.class, UserView.UserPut.class})
+    @Size(max = 20, groups = UserView.UserPatch.class)
+    @JsonView({UserView.RegistrationPost.class, UserView.UserPut.class, UserView.UserPatch.class})
     private String cpf;
 
     @NotBlank(groups = UserView.ImagePut.class)
-    @JsonView(UserView.ImagePut.class)
+    @JsonView({UserView.ImagePut.class, UserView.UserPatch.class})
     private String imageUrl;
+
+    @JsonView({UserView.UserPatch.class, UserView.PasswordPatch.class})
+    private Long version;
 }
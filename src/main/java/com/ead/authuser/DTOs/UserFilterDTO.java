@@ -0,0 +1,12 @@
+package com.ead.authuser.DTOs;
+
+import lombok.Data;
+
+@Data
+public class UserFilterDTO {
+
+    private String userType;
+    private String userStatus;
+    private String email;
+    private String fullName;
+}
@@ -0,0 +1,20 @@
+package com.ead.authuser.DTOs;
+
+import com.ead.authuser.enums.UserType;
+import lombok.Data;
+
+@Data
+public class UserPatchDTO {
+
+    private Long version;
+
+    private String fullName;
+
+    private String phoneNumber;
+
+    private String cpf;
+
+    private String imageUrl;
+
+    private UserType userType;
+}
@@ -0,0 +1,19 @@
+package com.ead.authuser.DTOs;
+
+import com.ead.authuser.models.UserModel;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserProfileDTO {
+
+    private UserModel user;
+    private Page<CourseDTO> courses;
+    private String coursesError;
+}
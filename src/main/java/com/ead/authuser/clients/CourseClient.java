@@ -3,6 +3,9 @@ package com.ead.authuser.clients;
 import com.ead.authuser.DTOs.CourseDTO;
 import com.ead.authuser.DTOs.ResponsePageDTO;
 import com.ead.authuser.services.UtilsService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,12 +14,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Log4j2
 @Component
@@ -28,17 +37,80 @@ public class CourseClient {
     @Autowired
     private UtilsService utilsService;
 
+    @Autowired
+    private ThreadPoolTaskExecutor courseClientExecutor;
+
+    @Value("${ead.api.course.async.timeout-ms:3000}")
+    private long asyncTimeoutMs;
+
     @Value("${ead.api.url.course}")
     String REQUEST_URL_COURSE;
 
+    @Value("${ead.cache.courses-by-user.maximum-size:10000}")
+    private long coursesByUserMaximumSize;
+
+    @Value("${ead.cache.courses-by-user.ttl-seconds:10}")
+    private long coursesByUserTtlSeconds;
+
+    private AsyncCache<String, Page<CourseDTO>> coursesByUserCache;
+
+    @PostConstruct
+    public void init() {
+        coursesByUserCache = Caffeine.newBuilder()
+                .maximumSize(coursesByUserMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(coursesByUserTtlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
     public Page<CourseDTO> getAllCoursesByUser(UUID userId, Pageable pageable) {
-        List<CourseDTO> searchResult = null;
-        ResponseEntity<ResponsePageDTO<CourseDTO>> result = null;
+        String url = REQUEST_URL_COURSE + utilsService.createUrlGetAllCoursesByUser(userId, pageable);
+        CompletableFuture<Page<CourseDTO>> created = new CompletableFuture<>();
+
+        // only the future is cached, the remote call runs outside the cache's compute so other keys and evictions never wait on it
+        CompletableFuture<Page<CourseDTO>> future = coursesByUserCache.get(url, (key, executor) -> created);
+
+        // concurrent callers for the same url wait for the single in-flight request instead of issuing their own
+        if (future == created) {
+            try {
+                created.complete(requestAllCoursesByUser(userId, url));
+            } catch (RuntimeException exception) {
+                created.completeExceptionally(exception);
+            }
+        }
 
+        return join(future);
+    }
+
+    public CompletableFuture<Page<CourseDTO>> getAllCoursesByUserAsync(UUID userId, Pageable pageable) {
         String url = REQUEST_URL_COURSE + utilsService.createUrlGetAllCoursesByUser(userId, pageable);
 
+        // the timeout applies to this caller's copy, a slow shared request is not failed for everyone waiting on it
+        return coursesByUserCache.get(url, (key, executor) -> CompletableFuture.supplyAsync(
+                        () -> requestAllCoursesByUser(userId, key), courseClientExecutor))
+                .copy()
+                .orTimeout(asyncTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void evictCoursesByUser(UUID userId) {
+        String userParameter = "userId=" + userId + "&";
+        // removes in-flight futures as well, a load that completes afterwards is not put back
+        coursesByUserCache.asMap().keySet().removeIf(url -> url.contains(userParameter));
+    }
+
+    public void evictAllCoursesByUser() {
+        coursesByUserCache.synchronous().invalidateAll();
+    }
+
+    public CacheStats coursesByUserCacheStats() {
+        return coursesByUserCache.synchronous().stats();
+    }
+
+    private Page<CourseDTO> requestAllCoursesByUser(UUID userId, String url) {
+        List<CourseDTO> searchResult = null;
+        ResponseEntity<ResponsePageDTO<CourseDTO>> result = null;
+
         log.debug("Request URL: {}", url);
-        log.info("Request URL: {}", url);
 
         try {
             ParameterizedTypeReference<ResponsePageDTO<CourseDTO>>  responseType =
@@ -54,11 +126,22 @@ public class CourseClient {
             log.error("Error request /courses {}", exception);
         }
 
-        log.info("Ending request /courses userId {}", userId);
+        log.debug("Ending request /courses userId {}", userId);
 
         return result.getBody();
     }
 
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
     public void deleteUserInCourse(UUID userId) {
         String url = REQUEST_URL_COURSE + "/courses/users/" + userId;
 
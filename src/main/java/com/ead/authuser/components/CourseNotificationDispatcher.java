@@ -0,0 +1,83 @@
+package com.ead.authuser.components;
+
+import com.ead.authuser.clients.CourseClient;
+import com.ead.authuser.models.CourseNotificationModel;
+import com.ead.authuser.services.CourseNotificationService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Log4j2
+@Component
+public class CourseNotificationDispatcher {
+
+    @Autowired
+    private CourseNotificationService courseNotificationService;
+
+    @Autowired
+    private CourseClient courseClient;
+
+    @Value("${ead.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${ead.outbox.sent-retention-hours:168}")
+    private long sentRetentionHours;
+
+    @Scheduled(fixedDelayString = "${ead.outbox.fixed-delay-ms:2000}")
+    public void dispatch() {
+        List<CourseNotificationModel> notifications;
+
+        do {
+            notifications = courseNotificationService.claimDue(batchSize);
+
+            if (notifications.isEmpty()) {
+                return;
+            }
+
+            // repeated deletions of the same user collapse into one remote call
+            Map<UUID, List<CourseNotificationModel>> byUser = notifications.stream()
+                    .collect(Collectors.groupingBy(CourseNotificationModel::getUserId, LinkedHashMap::new,
+                            Collectors.toList()));
+
+            for (Map.Entry<UUID, List<CourseNotificationModel>> entry : byUser.entrySet()) {
+                try {
+                    courseClient.deleteUserInCourse(entry.getKey());
+                    courseNotificationService.markSent(entry.getValue());
+                } catch (RuntimeException exception) {
+                    // anything thrown for one user is an attempt, otherwise the rows sit leased forever and never reach FAILED
+                    log.warn("Error notifying course service of deleted userId {} ", entry.getKey(), exception);
+                    courseNotificationService.markFailed(entry.getValue(), exception.getMessage());
+                }
+            }
+
+            log.debug("Dispatched {} course notifications for {} users", notifications.size(), byUser.size());
+        } while (notifications.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${ead.outbox.purge-fixed-delay-ms:3600000}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now(ZoneId.of("UTC-3")).minusHours(sentRetentionHours);
+        int deleted;
+        int total = 0;
+
+        // deleted in batches so a large backlog does not hold one long transaction
+        do {
+            deleted = courseNotificationService.deleteSentBefore(before, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.debug("Purged {} sent course notifications older than {}", total, before);
+        }
+    }
+}
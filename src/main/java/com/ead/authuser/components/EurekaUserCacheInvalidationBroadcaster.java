@@ -0,0 +1,112 @@
+package com.ead.authuser.components;
+
+import com.ead.authuser.services.TokenService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "ead.cache.users.broadcast", havingValue = "eureka", matchIfMissing = true)
+public class EurekaUserCacheInvalidationBroadcaster implements UserCacheInvalidationBroadcaster {
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private ObjectProvider<Registration> registration;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${server.servlet.context-path:/}")
+    private String contextPath;
+
+    private final List<Consumer<UUID>> listeners = new CopyOnWriteArrayList<>();
+
+    // peers are addressed by host and port, so this must not be the @LoadBalanced template
+    private RestTemplate peerRestTemplate;
+
+    private ThreadPoolExecutor broadcastExecutor;
+
+    @PostConstruct
+    public void init() {
+        peerRestTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(500))
+                .setReadTimeout(Duration.ofSeconds(1))
+                .build();
+        broadcastExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10000), new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcastExecutor.shutdown();
+    }
+
+    @Override
+    public void broadcast(UUID userId) {
+        for (Consumer<UUID> listener : listeners) {
+            listener.accept(userId);
+        }
+
+        broadcastExecutor.execute(() -> notifyPeers(userId));
+    }
+
+    @Override
+    public void subscribe(Consumer<UUID> listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyPeers(UUID userId) {
+        Registration self = registration.getIfAvailable();
+        String path = (contextPath.endsWith("/") ? contextPath : contextPath + "/") + "caches/users/" + userId;
+
+        for (ServiceInstance instance : discoveryClient.getInstances(applicationName)) {
+            if (self != null && instance.getInstanceId() != null && instance.getInstanceId().equals(self.getInstanceId())) {
+                continue;
+            }
+
+            URI uri = instance.getUri().resolve(path);
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(TokenService.SERVICE_SIGNATURE_HEADER, tokenService.signServiceRequest("DELETE", uri.getRawPath()));
+
+            try {
+                peerRestTemplate.exchange(uri, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+            } catch (RestClientException exception) {
+                // the peer's entry still expires through the cache TTL
+                log.warn("Could not invalidate user {} on instance {}", userId, instance.getUri(), exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ead.authuser.components;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+// invalidates this instance only: single-node runs and tests, several instances would serve stale users until the TTL
+@ConditionalOnProperty(name = "ead.cache.users.broadcast", havingValue = "local")
+public class LocalUserCacheInvalidationBroadcaster implements UserCacheInvalidationBroadcaster {
+
+    private final List<Consumer<UUID>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void broadcast(UUID userId) {
+        for (Consumer<UUID> listener : listeners) {
+            listener.accept(userId);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<UUID> listener) {
+        listeners.add(listener);
+    }
+}
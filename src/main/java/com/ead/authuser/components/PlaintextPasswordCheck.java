@@ -0,0 +1,45 @@
+package com.ead.authuser.components;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Log4j2
+@Component
+public class PlaintextPasswordCheck {
+
+    // the factory is only injected to order this check after Hibernate's schema update
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ead.password.legacy-plaintext.enabled:false}")
+    private boolean legacyPlaintextEnabled;
+
+    @PostConstruct
+    public void verify() {
+        if (legacyPlaintextEnabled) {
+            return;
+        }
+
+        Boolean plaintext = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE password !~ '^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$')",
+                Boolean.class);
+
+        // with the fallback off those users could never log in again, refuse to start instead of locking them out
+        if (Boolean.TRUE.equals(plaintext)) {
+            throw new IllegalStateException("Users with plain text passwords exist and " +
+                    "ead.password.legacy-plaintext.enabled is false, run db/owner/hash-plaintext-passwords.sql " +
+                    "or enable the fallback until it has run");
+        }
+
+        log.debug("No plain text passwords left in users");
+    }
+}
@@ -0,0 +1,74 @@
+package com.ead.authuser.components;
+
+import com.ead.authuser.configs.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "ead.datasource.replica.enabled", havingValue = "true")
+public class PrimaryPinFilter extends OncePerRequestFilter {
+
+    public static final String PIN_COOKIE = "ead_primary_until";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    @Value("${ead.datasource.replica.pin-seconds:5}")
+    private int pinSeconds;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean writes = !READ_METHODS.contains(request.getMethod());
+
+        // set before the chain runs, async handlers may commit the response after this filter returns
+        if (writes) {
+            response.addCookie(pinCookie(request));
+        }
+
+        // a writing request reads its own preconditions from the primary as well
+        if (writes || isPinned(request)) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private Cookie pinCookie(HttpServletRequest request) {
+        Cookie cookie = new Cookie(PIN_COOKIE, String.valueOf(System.currentTimeMillis() + pinSeconds * 1000L));
+        cookie.setMaxAge(pinSeconds);
+        cookie.setHttpOnly(true);
+        cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        return cookie;
+    }
+
+    // the expiry is checked here too, clients that ignore Max-Age keep sending the cookie
+    private static boolean isPinned(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (PIN_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException exception) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ead.authuser.components;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final double[] COUNT_BUCKETS = {1, 2, 5, 10, 25, 50, 100};
+
+    @Autowired
+    private HibernateRequestStatistics hibernateRequestStatistics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        hibernateRequestStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // async handlers only contribute what ran on the request thread before the future was returned
+            HibernateRequestStatistics.Counts counts = hibernateRequestStatistics.stop();
+            String uri = uri(request, response);
+
+            summary("ead.hibernate.request.statements", request.getMethod(), uri).record(counts.getStatements());
+            summary("ead.hibernate.request.entity.loads", request.getMethod(), uri).record(counts.getEntityLoads());
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .baseUnit(name.endsWith("statements") ? "statements" : "entities")
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(COUNT_BUCKETS)
+                .register(meterRegistry);
+    }
+
+    // same low-cardinality uri as http.server.requests: the matched pattern, never the raw path
+    private static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return response.getStatus() == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+}
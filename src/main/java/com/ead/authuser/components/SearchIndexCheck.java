@@ -0,0 +1,44 @@
+package com.ead.authuser.components;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Log4j2
+@Component
+public class SearchIndexCheck {
+
+    private static final int SEARCH_INDEXES = 3;
+
+    // the factory is only injected to order this check after Hibernate's schema update
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void verify() {
+        Integer extensions = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class);
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "WHERE i.indrelid = to_regclass('users') AND i.indisvalid AND c.relname IN " +
+                        "('idx_users_username_trgm', 'idx_users_email_trgm', 'idx_users_full_name_trgm')",
+                Integer.class);
+
+        // only GET /users/search depends on these, the rest of the service runs without them
+        if (extensions == null || extensions == 0) {
+            log.warn("pg_trgm is not installed, GET /users/search will fail until db/owner/search-indexes.sql has run");
+        } else if (indexes == null || indexes < SEARCH_INDEXES) {
+            log.warn("{} of {} trigram search indexes are valid, GET /users/search scans the users table until " +
+                    "db/owner/search-indexes.sql has run", indexes, SEARCH_INDEXES);
+        } else {
+            log.debug("pg_trgm and the trigram search indexes are present");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ead.authuser.components;
+
+import com.ead.authuser.DTOs.RevokedUserDTO;
+import com.ead.authuser.enums.UserStatus;
+import com.ead.authuser.models.RevokedUserModel;
+import com.ead.authuser.projections.UserRevocationProjection;
+import com.ead.authuser.repositories.RevokedUserRepository;
+import com.ead.authuser.repositories.UserRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Log4j2
+@Component
+public class TokenRevocationList {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedUserRepository revokedUserRepository;
+
+    @Value("${ead.auth.token.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    private volatile Map<UUID, Long> blocked = Collections.emptyMap();
+
+    private final Map<UUID, Long> deleted = new ConcurrentHashMap<>();
+
+    // reloaded from the database so a block made through any instance, or directly in SQL, reaches every instance
+    @Scheduled(fixedDelayString = "${ead.auth.token.revocation-refresh-ms:10000}")
+    public void refresh() {
+        Map<UUID, Long> current = new HashMap<>();
+        for (UserRevocationProjection user : userRepository.findRevocationsByUserStatus(UserStatus.BLOCKED)) {
+            current.put(user.getUserId(), user.getLastUpdateDate().atZone(ZoneId.of("UTC-3")).toEpochSecond());
+        }
+        blocked = current;
+
+        // deleted users have no row left to read the status from, their tombstones are shared instead
+        LocalDateTime since = LocalDateTime.now(ZoneId.of("UTC-3")).minusSeconds(ttlSeconds);
+        for (RevokedUserModel revokedUser : revokedUserRepository.findAllByRevocationDateAfter(since)) {
+            deleted.putIfAbsent(revokedUser.getUserId(),
+                    revokedUser.getRevocationDate().atZone(ZoneId.of("UTC-3")).toEpochSecond());
+        }
+
+        // once every token issued before the deletion has expired the entry has nothing left to reject
+        long cutoff = Instant.now().getEpochSecond() - ttlSeconds;
+        deleted.values().removeIf(revokedAt -> revokedAt < cutoff);
+
+        log.debug("Token revocation list refreshed, {} blocked and {} deleted users", current.size(), deleted.size());
+    }
+
+    @Scheduled(fixedDelayString = "${ead.auth.token.revocation-purge-ms:3600000}")
+    public void purge() {
+        int purged = revokedUserRepository.deleteAllRevokedBefore(
+                LocalDateTime.now(ZoneId.of("UTC-3")).minusSeconds(ttlSeconds));
+
+        if (purged > 0) {
+            log.debug("Purged {} expired user revocations", purged);
+        }
+    }
+
+    public boolean isRevoked(UUID userId) {
+        return blocked.containsKey(userId) || deleted.containsKey(userId);
+    }
+
+    public void revoke(UUID userId) {
+        // written in the caller's transaction, so the tombstone exists exactly when the deletion commits
+        revokedUserRepository.save(new RevokedUserModel(userId, LocalDateTime.now(ZoneId.of("UTC-3"))));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleted.put(userId, Instant.now().getEpochSecond());
+                }
+            });
+        } else {
+            deleted.put(userId, Instant.now().getEpochSecond());
+        }
+    }
+
+    public List<RevokedUserDTO> findAll() {
+        List<RevokedUserDTO> revoked = new ArrayList<>(blocked.size() + deleted.size());
+        blocked.forEach((userId, revokedAt) -> revoked.add(new RevokedUserDTO(userId, revokedAt)));
+        deleted.forEach((userId, revokedAt) -> revoked.add(new RevokedUserDTO(userId, revokedAt)));
+        return revoked;
+    }
+}
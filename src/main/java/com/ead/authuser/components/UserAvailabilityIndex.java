@@ -0,0 +1,147 @@
+package com.ead.authuser.components;
+
+import com.ead.authuser.projections.UserIdentityProjection;
+import com.ead.authuser.repositories.UserRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+@Log4j2
+@Component
+public class UserAvailabilityIndex {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${ead.auth.availability.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${ead.auth.availability.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    @Value("${ead.auth.availability.refresh-overlap-ms:60000}")
+    private long refreshOverlapMs;
+
+    // current and building filters are swapped together, an add sees either both or the finished one
+    private final AtomicReference<Filters> filters = new AtomicReference<>(new Filters(null, null));
+
+    private volatile LocalDateTime refreshedUntil;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long expected = Math.max(expectedInsertions, userRepository.count() * 2);
+        LocalDateTime startedAt = LocalDateTime.now(ZoneId.of("UTC-3"));
+        var building = new Filter(new BloomFilter(expected, falsePositiveProbability),
+                new BloomFilter(expected, falsePositiveProbability));
+
+        filters.updateAndGet(current -> new Filters(current.current, building));
+
+        long loaded;
+        try (Stream<UserIdentityProjection> identities = userRepository.streamAllIdentities()) {
+            loaded = load(building, identities);
+        }
+
+        filters.set(new Filters(building, null));
+        refreshedUntil = startedAt;
+
+        log.info("User availability index built with {} users, {} bits and {} hash functions",
+                loaded, building.usernames.getBitSize(), building.usernames.getHashFunctions());
+    }
+
+    // signups made on other instances only reach this filter through the table
+    @Scheduled(fixedDelayString = "${ead.auth.availability.refresh-ms:10000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Filter current = filters.get().current;
+        LocalDateTime since = refreshedUntil;
+
+        if (current == null || since == null) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now(ZoneId.of("UTC-3"));
+
+        // the overlap covers clock skew between instances and rows committed after their creation date
+        long loaded;
+        try (Stream<UserIdentityProjection> identities = userRepository.streamIdentitiesCreatedSince(
+                since.minusNanos(refreshOverlapMs * 1_000_000))) {
+            loaded = load(current, identities);
+        }
+        refreshedUntil = startedAt;
+
+        log.debug("User availability index refreshed with {} recent users", loaded);
+    }
+
+    public void add(String username, String email) {
+        Filters snapshot = filters.get();
+
+        if (snapshot.current != null) {
+            snapshot.current.put(username, email);
+        }
+        // values saved while a rebuild is streaming the table must also reach the new filter
+        if (snapshot.building != null) {
+            snapshot.building.put(username, email);
+        }
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filter current = filters.get().current;
+        return current == null || current.usernames.mightContain(username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filter current = filters.get().current;
+        return current == null || current.emails.mightContain(email);
+    }
+
+    private static long load(Filter filter, Stream<UserIdentityProjection> identities) {
+        long loaded = 0;
+        for (UserIdentityProjection identity : (Iterable<UserIdentityProjection>) identities::iterator) {
+            filter.put(identity.getUsername(), identity.getEmail());
+            loaded++;
+        }
+        return loaded;
+    }
+
+    private static final class Filter {
+
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filter(BloomFilter usernames, BloomFilter emails) {
+            this.usernames = usernames;
+            this.emails = emails;
+        }
+
+        private void put(String username, String email) {
+            if (username != null) {
+                usernames.put(username);
+            }
+            if (email != null) {
+                emails.put(email);
+            }
+        }
+    }
+
+    private static final class Filters {
+
+        private final Filter current;
+        private final Filter building;
+
+        private Filters(Filter current, Filter building) {
+            this.current = current;
+            this.building = building;
+        }
+    }
+}
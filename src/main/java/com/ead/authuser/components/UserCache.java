@@ -0,0 +1,86 @@
+package com.ead.authuser.components;
+
+import com.ead.authuser.models.UserModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+
+    @Autowired
+    private UserCacheInvalidationBroadcaster broadcaster;
+
+    @Value("${ead.cache.users.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${ead.cache.users.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<UUID, UserModel> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        broadcaster.subscribe(this::invalidateLocal);
+    }
+
+    public Optional<UserModel> get(UUID userId, Function<UUID, Optional<UserModel>> loader) {
+        UserModel cached = cache.get(userId, key -> loader.apply(key).map(UserCache::copyOf).orElse(null));
+
+        // callers mutate and save what they get back, so the cached instance is never handed out
+        return Optional.ofNullable(cached).map(UserCache::copyOf);
+    }
+
+    public Optional<Long> getVersionIfPresent(UUID userId) {
+        return Optional.ofNullable(cache.getIfPresent(userId)).map(UserModel::getVersion);
+    }
+
+    public void invalidate(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // evicting before commit would let a concurrent read cache the old row again
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcaster.broadcast(userId);
+                }
+            });
+        } else {
+            broadcaster.broadcast(userId);
+        }
+    }
+
+    public void invalidateLocal(UUID userId) {
+        cache.invalidate(userId);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static UserModel copyOf(UserModel source) {
+        var copy = new UserModel();
+        BeanUtils.copyProperties(source, copy, "usersCourses");
+        return copy;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ead.authuser.components;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface UserCacheInvalidationBroadcaster {
+
+    void broadcast(UUID userId);
+
+    void subscribe(Consumer<UUID> listener);
+}
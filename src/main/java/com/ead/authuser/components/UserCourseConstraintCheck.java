@@ -0,0 +1,39 @@
+package com.ead.authuser.components;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Log4j2
+@Component
+public class UserCourseConstraintCheck {
+
+    private static final String CONSTRAINT_NAME = "uk_users_courses_course_id_user_id";
+
+    // the factory is only injected to order this check after Hibernate's schema update
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void verify() {
+        Integer constraints = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.table_constraints WHERE table_schema = current_schema() " +
+                        "AND table_name = 'users_courses' AND constraint_name = ? AND constraint_type = 'UNIQUE'",
+                Integer.class, CONSTRAINT_NAME);
+
+        // RECREATE_QUIETLY only logs when duplicates block the constraint, and ON CONFLICT inserts fail without it
+        if (constraints == null || constraints == 0) {
+            throw new IllegalStateException("Unique constraint " + CONSTRAINT_NAME + " is missing on users_courses, " +
+                    "run db/owner/users-courses-unique.sql to remove duplicate subscriptions and add it");
+        }
+
+        log.debug("Unique constraint {} present on users_courses", CONSTRAINT_NAME);
+    }
+}
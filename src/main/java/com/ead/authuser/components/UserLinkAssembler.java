@@ -0,0 +1,24 @@
+package com.ead.authuser.components;
+
+import com.ead.authuser.controllers.UserController;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+@Component
+public class UserLinkAssembler {
+
+    public <T extends RepresentationModel<?>> void addSelfLinks(Iterable<T> users, Function<T, UUID> userId) {
+        // resolves the controller mapping and request base once instead of proxying getUserById per row
+        String usersUri = linkTo(UserController.class).toUri().toString();
+
+        for (T user : users) {
+            user.add(Link.of(usersUri + "/" + userId.apply(user)));
+        }
+    }
+}
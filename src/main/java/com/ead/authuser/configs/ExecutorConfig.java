@@ -0,0 +1,86 @@
+package com.ead.authuser.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor userImportExecutor(
+            @Value("${ead.auth.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        // every import job runs a parser and a persister task side by side
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs * 2);
+        executor.setMaxPoolSize(maxConcurrentJobs * 2);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("user-import-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor courseClientExecutor(
+            @Value("${ead.api.course.async.pool-size:16}") int poolSize,
+            @Value("${ead.api.course.async.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("course-client-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${ead.password.hash.pool-size:0}") int poolSize,
+            @Value("${ead.password.hash.queue-capacity:100}") int queueCapacity) {
+        // hashing is pure CPU, more threads than cores only adds latency to every request
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setTaskDecorator(new PrimaryPinTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor passwordBulkHashExecutor(
+            @Value("${ead.password.bulk-hash.pool-size:0}") int poolSize,
+            @Value("${ead.password.bulk-hash.queue-capacity:20}") int queueCapacity) {
+        // batch signups and imports hash here, at most half the cores, so signup and login keep the hash pool
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("password-bulk-hash-");
+        executor.setTaskDecorator(new PrimaryPinTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor userWriteExecutor(
+            @Value("${ead.password.write.pool-size:10}") int poolSize,
+            @Value("${ead.password.write.queue-capacity:100}") int queueCapacity) {
+        // the database step after a hash, kept off the hash pool so a slow connection never holds a CPU slot
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("user-write-");
+        executor.setTaskDecorator(new PrimaryPinTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
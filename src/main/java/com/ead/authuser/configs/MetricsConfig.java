@@ -0,0 +1,49 @@
+package com.ead.authuser.configs;
+
+import com.ead.authuser.components.HibernateRequestStatistics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.actuate.metrics.web.client.RestTemplateExchangeTags;
+import org.springframework.boot.actuate.metrics.web.client.RestTemplateExchangeTagsProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.regex.Pattern;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*://[^/]*");
+    private static final Pattern UUID_SEGMENT =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern REPEATED_SLASHES = Pattern.compile("/{2,}");
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateRequestStatisticsCustomizer(
+            HibernateRequestStatistics hibernateRequestStatistics) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, hibernateRequestStatistics);
+            properties.put(AvailableSettings.INTERCEPTOR, hibernateRequestStatistics);
+        };
+    }
+
+    // CourseClient builds complete urls, so the default uri tag would carry every userId and query string
+    @Bean
+    public RestTemplateExchangeTagsProvider restTemplateExchangeTagsProvider() {
+        return (urlTemplate, request, response) -> Tags.of(
+                RestTemplateExchangeTags.method(request),
+                Tag.of("uri", lowCardinalityUri(urlTemplate != null ? urlTemplate : request.getURI().toString())),
+                RestTemplateExchangeTags.status(response),
+                RestTemplateExchangeTags.clientName(request),
+                RestTemplateExchangeTags.outcome(response));
+    }
+
+    private static String lowCardinalityUri(String url) {
+        int query = url.indexOf('?');
+        String path = SCHEME_AND_HOST.matcher(query < 0 ? url : url.substring(0, query)).replaceFirst("");
+        path = UUID_SEGMENT.matcher(path).replaceAll("{id}");
+        return REPEATED_SLASHES.matcher(path).replaceAll("/");
+    }
+}
@@ -0,0 +1,23 @@
+package com.ead.authuser.configs;
+
+import org.springframework.core.task.TaskDecorator;
+
+public class PrimaryPinTaskDecorator implements TaskDecorator {
+
+    // the pin is a thread local, a task continuing a pinned request would otherwise read from the replica again
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        if (!ReplicaRoutingDataSource.isPinnedToPrimary()) {
+            return runnable;
+        }
+
+        return () -> {
+            ReplicaRoutingDataSource.pinToPrimary();
+            try {
+                runnable.run();
+            } finally {
+                ReplicaRoutingDataSource.unpin();
+            }
+        };
+    }
+}
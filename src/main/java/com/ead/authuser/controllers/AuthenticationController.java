@@ -1,9 +1,19 @@
 package com.ead.authuser.controllers;
 
+import com.ead.authuser.DTOs.ImportJobDTO;
+import com.ead.authuser.DTOs.LoginDTO;
+import com.ead.authuser.DTOs.RevokedUserDTO;
+import com.ead.authuser.DTOs.TokenClaimsDTO;
 import com.ead.authuser.DTOs.UserDTO;
+import com.ead.authuser.components.TokenRevocationList;
+import com.ead.authuser.enums.ImportFormat;
 import com.ead.authuser.enums.UserStatus;
 import com.ead.authuser.enums.UserType;
 import com.ead.authuser.models.UserModel;
+import com.ead.authuser.services.PasswordService;
+import com.ead.authuser.services.TokenService;
+import com.ead.authuser.services.UserImportService;
+import com.ead.authuser.services.UserRegistrationService;
 import com.ead.authuser.services.UserService;
 import com.fasterxml.jackson.annotation.JsonView;
 import lombok.extern.log4j.Log4j2;
@@ -11,13 +21,30 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Log4j2
 @RestController
@@ -25,11 +52,34 @@ import java.time.ZoneId;
 @RequestMapping("/auth")
 public class AuthenticationController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor userWriteExecutor;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${ead.auth.signup.batch.max-size:1000}")
+    private int maxBatchSize;
+
     @PostMapping("/signup")
-    public ResponseEntity<Object> registerUser(
+    public CompletableFuture<ResponseEntity<Object>> registerUser(
             @RequestBody
             @Validated(UserDTO.UserView.RegistrationPost.class)
             @JsonView(UserDTO.UserView.RegistrationPost.class)
@@ -41,15 +91,15 @@ public class AuthenticationController {
         if (userService.existsByUsername(userDTO.getUsername())) {
             log.warn("Username {} is Already Taken", userDTO.getUsername());
 
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body("Error: Username is Already Taken!");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: Username is Already Taken!"));
         }
 
         if (userService.existsByEmail(userDTO.getEmail())) {
             log.warn("Email {} is Already Taken", userDTO.getEmail());
 
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body("Error: Email is Already Taken!");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: Email is Already Taken!"));
         }
 
         BeanUtils.copyProperties(userDTO, userModel);
@@ -57,10 +107,173 @@ public class AuthenticationController {
         userModel.setUserType(UserType.STUDENT);
         userModel.setCreationDate(LocalDateTime.now(ZoneId.of("UTC-3")));
         userModel.setLastUpdateDate(LocalDateTime.now(ZoneId.of("UTC-3")));
-        userService.save(userModel);
 
-        log.debug("POST registerUser userId saved {} ", userModel.getUserId());
-        log.info("User saved successfully userId {} ", userModel.getUserId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(userModel);
+        // BCrypt runs on the bounded hash pool and the insert on the write pool, the request thread is released meanwhile
+        return passwordService.hash(userDTO.getPassword()).thenApplyAsync(hash -> {
+            userModel.setPassword(hash);
+
+            try {
+                userService.save(userModel);
+            } catch (DataIntegrityViolationException exception) {
+                // a concurrent signup can still pass the checks above, the unique constraints decide
+                log.warn("Username {} or Email {} was taken concurrently", userDTO.getUsername(),
+                        userDTO.getEmail());
+
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: Username or Email is Already Taken!");
+            }
+
+            log.debug("POST registerUser userId saved {} ", userModel.getUserId());
+            log.info("User saved successfully userId {} ", userModel.getUserId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(userModel);
+        }, userWriteExecutor);
+    }
+
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<Object>> login(@RequestBody @Valid LoginDTO loginDTO) {
+        log.debug("POST login username received {} ", loginDTO.getUsername());
+
+        Optional<UserModel> userModelOptional = userService.findByUsername(loginDTO.getUsername());
+
+        if (!userModelOptional.isPresent()) {
+            log.warn("Login failed for username {} ", loginDTO.getUsername());
+
+            // same BCrypt work as a wrong password, otherwise the response time tells which usernames exist
+            return passwordService.verifyUnknownUser(loginDTO.getPassword()).thenApply(check ->
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Invalid username or password!"));
+        }
+
+        var userModel = userModelOptional.get();
+
+        return userService.checkPassword(userModel, loginDTO.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                log.warn("Login failed for username {} ", loginDTO.getUsername());
+
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Invalid username or password!");
+            }
+
+            if (userModel.getUserStatus() == UserStatus.BLOCKED) {
+                log.warn("Login refused for blocked userId {} ", userModel.getUserId());
+
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Error: User is blocked!");
+            }
+
+            log.info("User logged in successfully userId {} ", userModel.getUserId());
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .cacheControl(CacheControl.noStore())
+                    .body(tokenService.issue(userModel));
+        });
+    }
+
+    @PostMapping("/introspect")
+    public ResponseEntity<Object> introspect(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        // signature, expiry and the revocation list are all checked in memory, no user lookup
+        Optional<TokenClaimsDTO> claimsOptional = authorization != null && authorization.startsWith(BEARER_PREFIX)
+                ? tokenService.verify(authorization.substring(BEARER_PREFIX.length()).trim())
+                : Optional.empty();
+
+        if (!claimsOptional.isPresent()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Invalid token!");
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(claimsOptional.get());
+    }
+
+    @GetMapping("/revocations")
+    public ResponseEntity<Object> getRevocations(
+            @RequestHeader(value = TokenService.SERVICE_SIGNATURE_HEADER, required = false) String signature,
+            HttpServletRequest request) {
+        // the list names every blocked and deleted user, only services holding the shared secret may read it
+        if (!tokenService.verifyServiceRequest(request.getMethod(), request.getRequestURI(), signature)) {
+            log.warn("Rejected unsigned revocation list request");
+
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Error: Service signature required!");
+        }
+
+        List<RevokedUserDTO> revocations = tokenRevocationList.findAll();
+
+        return ResponseEntity.status(HttpStatus.OK).body(revocations);
+    }
+
+    @PostMapping("/signup/batch")
+    public CompletableFuture<ResponseEntity<Object>> registerUsers(
+            @RequestBody
+            @JsonView(UserDTO.UserView.RegistrationPost.class)
+            List<UserDTO> userDTOs) {
+        log.debug("POST registerUsers received {} users", userDTOs.size());
+
+        if (userDTOs.isEmpty() || userDTOs.size() > maxBatchSize) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: batch size must be between 1 and " + maxBatchSize + "!"));
+        }
+
+        // asynchronous like /signup, a full batch is minutes of BCrypt and must not hold a servlet thread
+        return userRegistrationService.registerAll(userDTOs)
+                .thenApply(results -> ResponseEntity.status(HttpStatus.OK).body(results));
+    }
+
+    @PostMapping(value = "/signup/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Object> importUsers(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) ImportFormat format) {
+        log.debug("POST importUsers file received {} ", file.getOriginalFilename());
+
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: file is empty!");
+        }
+
+        if (format == null) {
+            String fileName = String.valueOf(file.getOriginalFilename()).toLowerCase();
+            format = fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl") ? ImportFormat.NDJSON : ImportFormat.CSV;
+        }
+
+        try {
+            ImportJobDTO importJob = userImportService.startImport(file, format);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJob);
+        } catch (RejectedExecutionException exception) {
+            log.warn("User import rejected, too many imports running");
+
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body("Error: Too many imports running, try again later!");
+        } catch (IOException exception) {
+            log.error("Error storing import file {}", file.getOriginalFilename(), exception);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error: Could not store import file!");
+        }
+    }
+
+    @GetMapping("/signup/import/{jobId}")
+    public ResponseEntity<Object> getImportJob(@PathVariable(value = "jobId") UUID jobId) {
+        Optional<ImportJobDTO> importJobOptional = userImportService.findJob(jobId);
+
+        if (!importJobOptional.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Import job not found");
+        } else {
+            return ResponseEntity.status(HttpStatus.OK).body(importJobOptional.get());
+        }
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<Object> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if (username == null && email == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: username or email is required!");
+        }
+
+        // advisory only, users created on other instances since the last index refresh may be reported as free
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+
+        if (username != null) {
+            availability.put("usernameAvailable", !userService.probablyExistsByUsername(username));
+        }
+
+        if (email != null) {
+            availability.put("emailAvailable", !userService.probablyExistsByEmail(email));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(availability);
     }
 }
@@ -0,0 +1,75 @@
+package com.ead.authuser.controllers;
+
+import com.ead.authuser.clients.CourseClient;
+import com.ead.authuser.components.UserCache;
+import com.ead.authuser.services.TokenService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Log4j2
+@RestController
+@RequestMapping("/caches")
+public class CacheController {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CourseClient courseClient;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @GetMapping("/users/stats")
+    public ResponseEntity<Object> getUserCacheStats() {
+        Map<String, Object> body = toMap(userCache.stats());
+        body.put("size", userCache.estimatedSize());
+
+        return ResponseEntity.status(HttpStatus.OK).body(body);
+    }
+
+    @GetMapping("/courses-by-user/stats")
+    public ResponseEntity<Object> getCoursesByUserCacheStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(toMap(courseClient.coursesByUserCacheStats()));
+    }
+
+    @DeleteMapping("/users/{userId}")
+    public ResponseEntity<Object> invalidateUser(
+            @PathVariable(value = "userId") UUID userId,
+            @RequestHeader(value = TokenService.SERVICE_SIGNATURE_HEADER, required = false) String signature,
+            HttpServletRequest request) {
+        log.debug("DELETE invalidateUser userId received {} ", userId);
+
+        // only peers holding the shared secret may evict, anyone else could flush the cache at will
+        if (!tokenService.verifyServiceRequest(request.getMethod(), request.getRequestURI(), signature)) {
+            log.warn("Rejected unsigned user cache invalidation for userId {} ", userId);
+
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Error: Service signature required!");
+        }
+
+        userCache.invalidateLocal(userId);
+
+        return ResponseEntity.status(HttpStatus.OK).body("User cache entry invalidated");
+    }
+
+    private Map<String, Object> toMap(CacheStats stats) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("hitCount", stats.hitCount());
+        body.put("missCount", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictionCount", stats.evictionCount());
+        body.put("loadSuccessCount", stats.loadSuccessCount());
+        body.put("loadFailureCount", stats.loadFailureCount());
+
+        return body;
+    }
+}
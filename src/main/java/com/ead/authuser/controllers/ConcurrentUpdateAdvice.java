@@ -0,0 +1,47 @@
+package com.ead.authuser.controllers;
+
+import com.ead.authuser.components.UserCache;
+import com.ead.authuser.models.UserModel;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.UUID;
+
+@Log4j2
+@RestControllerAdvice
+public class ConcurrentUpdateAdvice {
+
+    @Autowired
+    private UserCache userCache;
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> concurrentUpdate(OptimisticLockingFailureException exception,
+                                                   HttpServletRequest request) {
+        log.warn("Conflicting update on {} {}: {} ", request.getMethod(), request.getRequestURI(),
+                exception.getMessage());
+
+        if (exception instanceof ObjectOptimisticLockingFailureException) {
+            var lockingFailure = (ObjectOptimisticLockingFailureException) exception;
+
+            // the merged copy came from the cache, drop it so a retry reads the row that won
+            if (UserModel.class.getName().equals(lockingFailure.getPersistentClassName())
+                    && lockingFailure.getIdentifier() instanceof UUID) {
+                userCache.invalidateLocal((UUID) lockingFailure.getIdentifier());
+            }
+        }
+
+        // same answers as the conditional updates: 412 when the client sent a precondition, 409 otherwise
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+
+        return ResponseEntity.status(status).body("Error: User was modified concurrently!");
+    }
+}
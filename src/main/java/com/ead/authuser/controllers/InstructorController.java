@@ -1,6 +1,7 @@
 package com.ead.authuser.controllers;
 
 import com.ead.authuser.DTOs.InstructorDTO;
+import com.ead.authuser.DTOs.UserPatchDTO;
 import com.ead.authuser.enums.UserType;
 import com.ead.authuser.models.UserModel;
 import com.ead.authuser.services.UserService;
@@ -42,4 +43,23 @@ public class InstructorController {
             return ResponseEntity.status(HttpStatus.OK).body(userModel);
         }
     }
+
+    @PatchMapping("/subscription")
+    public ResponseEntity<Object> patchSubscriptionInstructor(
+            @RequestBody @Valid InstructorDTO instructorDTO
+    ) {
+        var userPatchDTO = new UserPatchDTO();
+        userPatchDTO.setUserType(UserType.INSTRUCTOR);
+        userPatchDTO.setVersion(instructorDTO.getVersion());
+
+        Optional<UserModel> userModelOptional = userService.patch(instructorDTO.getUserId(), userPatchDTO);
+
+        if (userModelOptional.isPresent()) {
+            return ResponseEntity.status(HttpStatus.OK).body(userModelOptional.get());
+        } else if (!userService.existsById(instructorDTO.getUserId())) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found.");
+        } else {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: User was modified concurrently!");
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.ead.authuser.controllers;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@Log4j2
+@RestControllerAdvice
+public class ServerBusyAdvice {
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> serverBusy(RejectedExecutionException exception) {
+        log.warn("Request rejected, worker pool saturated: {} ", exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Error: Server busy, try again later!");
+    }
+}
@@ -1,70 +1,256 @@
 package com.ead.authuser.controllers;
 
+import com.ead.authuser.DTOs.CursorPageDTO;
+import com.ead.authuser.DTOs.UserCursorDTO;
 import com.ead.authuser.DTOs.UserDTO;
+import com.ead.authuser.DTOs.UserFilterDTO;
+import com.ead.authuser.DTOs.UserPatchDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
+import com.ead.authuser.components.UserLinkAssembler;
+import com.ead.authuser.enums.PageTotalMode;
 import com.ead.authuser.models.UserModel;
+import com.ead.authuser.services.PasswordService;
 import com.ead.authuser.services.UserService;
+import com.ead.authuser.services.UtilsService;
 import com.ead.authuser.specifications.SpecificationTemplate;
 import com.fasterxml.jackson.annotation.JsonView;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.concurrent.CompletableFuture;
 
 @Log4j2
 @RestController
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = HttpHeaders.ETAG)
 @RequestMapping("/users")
 public class UserController {
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UtilsService utilsService;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor userWriteExecutor;
+
+    @Autowired
+    private UserLinkAssembler userLinkAssembler;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     @GetMapping
-    public ResponseEntity<Page<UserModel>> getAllUsers(
+    public ResponseEntity<Slice<UserSummaryDTO>> getAllUsers(
             SpecificationTemplate.UserSpec spec,
             @PageableDefault(page = 0, size = 10, sort = "userId", direction = Sort.Direction.ASC)
             Pageable pageable,
-            @RequestParam(required = false) UUID courseId
+            @RequestParam(required = false) UUID courseId,
+            @RequestParam(defaultValue = "EXACT") PageTotalMode total,
+            UserFilterDTO filter,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        Page<UserModel> userModelPage = null;
+        Specification<UserModel> userSpec = spec;
 
         if (courseId != null) {
-            userModelPage = userService.findAll(SpecificationTemplate.userCourseId(courseId).and(spec), pageable);
+            userSpec = SpecificationTemplate.userCourseId(courseId).and(spec);
+        }
+
+        Slice<UserSummaryDTO> userModelPage = null;
+
+        if (total == PageTotalMode.EXACT) {
+            userModelPage = userService.findAllSummaries(userSpec, pageable);
         } else {
-            userModelPage = userService.findAll(spec, pageable);
+            userModelPage = userService.findAllSummariesSlice(userSpec, pageable);
+
+            if (total == PageTotalMode.ESTIMATED) {
+                long seen = pageable.getOffset() + userModelPage.getNumberOfElements()
+                        + (userModelPage.hasNext() ? 1 : 0);
+                long estimated = seen;
+
+                if (userModelPage.hasNext() || userModelPage.isEmpty() && pageable.getOffset() > 0) {
+                    estimated = Math.max(userService.estimateCount(filter, courseId), seen);
+                }
+
+                userModelPage = new PageImpl<>(userModelPage.getContent(), pageable, estimated);
+            }
+        }
+
+        String eTag = utilsService.usersETag(userModelPage);
+
+        if (ifNoneMatch != null && utilsService.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        userLinkAssembler.addSelfLinks(userModelPage, UserSummaryDTO::getUserId);
+
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(userModelPage);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<Object> getAllUsersByCursor(
+            SpecificationTemplate.UserSpec spec,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) UUID courseId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: size must be between 1 and " + MAX_CURSOR_PAGE_SIZE + "!");
         }
 
-        if (!userModelPage.isEmpty()) {
-            for (UserModel user: userModelPage.toList()) {
-                user.add(linkTo(methodOn(UserController.class).getUserById(user.getUserId())).withSelfRel());
+        UserCursorDTO cursor = null;
+
+        if (after != null && !after.isBlank()) {
+            try {
+                cursor = utilsService.decodeUserCursor(after);
+            } catch (IllegalArgumentException exception) {
+                log.warn("Invalid cursor received {} ", after);
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: Invalid cursor!");
             }
         }
 
-        return ResponseEntity.status(HttpStatus.OK).body(userModelPage);
+        Slice<UserSummaryDTO> userModelSlice = null;
+
+        if (courseId != null) {
+            userModelSlice = userService.findAllByCursor(
+                    SpecificationTemplate.userCourseId(courseId).and(spec), cursor, size);
+        } else {
+            userModelSlice = userService.findAllByCursor(spec, cursor, size);
+        }
+
+        String eTag = utilsService.usersETag(userModelSlice);
+
+        if (ifNoneMatch != null && utilsService.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        List<UserSummaryDTO> users = userModelSlice.getContent();
+
+        userLinkAssembler.addSelfLinks(users, UserSummaryDTO::getUserId);
+
+        String nextCursor = null;
+
+        if (userModelSlice.hasNext()) {
+            UserSummaryDTO last = users.get(users.size() - 1);
+            nextCursor = utilsService.encodeUserCursor(new UserCursorDTO(last.getCreationDate(), last.getUserId()));
+        }
+
+        var cursorPage = new CursorPageDTO<>(users, size, nextCursor);
+
+        if (nextCursor != null) {
+            cursorPage.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .toUriString(), IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(cursorPage);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        String term = q.trim();
+
+        // shorter terms have no trigram to look up and would scan the whole index
+        if (term.length() < MIN_SEARCH_TERM_LENGTH) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: q must have at least " + MIN_SEARCH_TERM_LENGTH + " characters!");
+        }
+
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: limit must be between 1 and " + MAX_SEARCH_LIMIT + "!");
+        }
+
+        List<UserSummaryDTO> users = userService.search(term, limit);
+
+        userLinkAssembler.addSelfLinks(users, UserSummaryDTO::getUserId);
+
+        return ResponseEntity.status(HttpStatus.OK).body(users);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportUsers(
+            SpecificationTemplate.UserSpec spec,
+            @RequestParam(required = false) UUID courseId,
+            HttpServletResponse response
+    ) throws IOException {
+        log.debug("GET exportUsers courseId received {} ", courseId);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        if (courseId != null) {
+            userService.exportAll(SpecificationTemplate.userCourseId(courseId).and(spec), response.getOutputStream());
+        } else {
+            userService.exportAll(spec, response.getOutputStream());
+        }
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable(value = "userId") UUID userId) {
+    public ResponseEntity<Object> getUserById(@PathVariable(value = "userId") UUID userId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // only the version is needed to answer a revalidation, the row itself is loaded on a miss
+            Optional<Long> versionOptional = userService.findVersionById(userId);
+
+            if (!versionOptional.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
+
+            String eTag = utilsService.userETag(userId, versionOptional.get());
+
+            if (utilsService.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
         Optional<UserModel> userModelOptional = userService.findById(userId);
 
         if (!userModelOptional.isPresent()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         } else {
-            return ResponseEntity.status(HttpStatus.OK).body(userModelOptional.get());
+            var userModel = userModelOptional.get();
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .eTag(utilsService.userETag(userId, userModel.getVersion()))
+                    .body(userModel);
         }
     }
 
@@ -89,13 +275,17 @@ public class UserController {
     @PutMapping("/{userId}")
     public ResponseEntity<Object> updateUser(@PathVariable(value = "userId") UUID userId,
                                              @RequestBody @Validated(UserDTO.UserView.UserPut.class)
-                                             @JsonView(UserDTO.UserView.UserPut.class) UserDTO userDTO) {
+                                             @JsonView(UserDTO.UserView.UserPut.class) UserDTO userDTO,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                             String ifMatch) {
         log.debug("PUT updateUser userDTO received {} ", userDTO.toString());
 
         Optional<UserModel> userModelOptional = userService.findById(userId);
 
         if (!userModelOptional.isPresent()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        } else if (preconditionFailed(ifMatch, userModelOptional.get())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Error: User was modified!");
         } else {
             var userModel = userModelOptional.get();
             userModel.setFullName(userDTO.getFullName());
@@ -108,48 +298,70 @@ public class UserController {
             log.debug("PUT updateUser userId saved {} ", userModel.getUserId());
             log.info("User updated successfully userId {} ", userModel.getUserId());
 
-            return ResponseEntity.status(HttpStatus.OK).body(userModel);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .eTag(utilsService.userETag(userModel.getUserId(), userModel.getVersion()))
+                    .body(userModel);
         }
     }
 
     @PutMapping("/{userId}/password")
-    public ResponseEntity<Object> updatePassword(@PathVariable(value = "userId") UUID userId,
-                                                 @RequestBody @Validated(UserDTO.UserView.PasswordPut.class)
-                                                 @JsonView(UserDTO.UserView.PasswordPut.class) UserDTO userDTO) {
+    public CompletableFuture<ResponseEntity<Object>> updatePassword(
+            @PathVariable(value = "userId") UUID userId,
+            @RequestBody @Validated(UserDTO.UserView.PasswordPut.class)
+            @JsonView(UserDTO.UserView.PasswordPut.class) UserDTO userDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.debug("PUT updatePassword userDto received {} ", userDTO.toString());
 
         Optional<UserModel> userModelOptional = userService.findById(userId);
 
         if (!userModelOptional.isPresent()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        } else if (!userModelOptional.get().getPassword().equals(userDTO.getOldPassword())) {
-            log.warn("Mismatched old password userId {} ", userId);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found"));
+        } else if (preconditionFailed(ifMatch, userModelOptional.get())) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Error: User was modified!"));
+        }
 
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: MisMatched old password!");
-        } else {
-            var userModel = userModelOptional.get();
-            userModel.setPassword(userDTO.getPassword());
-            userModel.setLastUpdateDate(LocalDateTime.now(ZoneId.of("UTC-3")));
+        var userModel = userModelOptional.get();
 
-            userService.save(userModel);
+        return passwordService.verify(userDTO.getOldPassword(), userModel.getPassword()).thenCompose(check -> {
+            if (!check.isMatches()) {
+                log.warn("Mismatched old password userId {} ", userId);
+
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.CONFLICT).body("Error: MisMatched old password!"));
+            }
 
-            log.debug("PUT updatePassword userId saved {} ", userModel.getUserId());
-            log.info("Password updated successfully userId {} ", userModel.getUserId());
+            return passwordService.hash(userDTO.getPassword()).thenApplyAsync(hash -> {
+                userModel.setPassword(hash);
+                userModel.setLastUpdateDate(LocalDateTime.now(ZoneId.of("UTC-3")));
 
-            return ResponseEntity.status(HttpStatus.OK).body("Password updated successfully");
-        }
+                userService.save(userModel);
+
+                log.debug("PUT updatePassword userId saved {} ", userModel.getUserId());
+                log.info("Password updated successfully userId {} ", userModel.getUserId());
+
+                return ResponseEntity.status(HttpStatus.OK)
+                        .eTag(utilsService.userETag(userModel.getUserId(), userModel.getVersion()))
+                        .body("Password updated successfully");
+            }, userWriteExecutor);
+        });
     }
 
     @PutMapping("/{userId}/image")
     public ResponseEntity<Object> updateImage(@PathVariable(value = "userId") UUID userId,
                                               @RequestBody @Validated(UserDTO.UserView.ImagePut.class)
-                                              @JsonView(UserDTO.UserView.ImagePut.class) UserDTO userDTO) {
+                                              @JsonView(UserDTO.UserView.ImagePut.class) UserDTO userDTO,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
         log.debug("PUT updateImage userDto received {} ", userDTO.toString());
 
         Optional<UserModel> userModelOptional = userService.findById(userId);
 
         if (!userModelOptional.isPresent()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        } else if (preconditionFailed(ifMatch, userModelOptional.get())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Error: User was modified!");
         } else {
             var userModel = userModelOptional.get();
             userModel.setImageUrl(userDTO.getImageUrl());
@@ -160,7 +372,118 @@ public class UserController {
             log.debug("PUT updateImage userId saved {} ", userModel.getUserId());
             log.info("Image updated successfully userId {} ", userModel.getUserId());
 
-            return ResponseEntity.status(HttpStatus.OK).body(userModel);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .eTag(utilsService.userETag(userModel.getUserId(), userModel.getVersion()))
+                    .body(userModel);
+        }
+    }
+
+    @PatchMapping("/{userId}")
+    public ResponseEntity<Object> patchUser(@PathVariable(value = "userId") UUID userId,
+                                            @RequestBody @Validated(UserDTO.UserView.UserPatch.class)
+                                            @JsonView(UserDTO.UserView.UserPatch.class) UserDTO userDTO,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                            String ifMatch) {
+        log.debug("PATCH patchUser userDTO received {} ", userDTO.toString());
+
+        var userPatchDTO = new UserPatchDTO();
+        BeanUtils.copyProperties(userDTO, userPatchDTO);
+
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            userPatchDTO.setVersion(utilsService.versionFromETag(userId, ifMatch.trim()));
+
+            if (userPatchDTO.getVersion() == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Error: Invalid If-Match!");
+            }
+        }
+
+        if (userPatchDTO.getFullName() == null && userPatchDTO.getPhoneNumber() == null
+                && userPatchDTO.getCpf() == null && userPatchDTO.getImageUrl() == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: Nothing to update!");
         }
+
+        Optional<UserModel> userModelOptional = userService.patch(userId, userPatchDTO);
+
+        if (!userModelOptional.isPresent()) {
+            return notUpdated(userId, ifMatch, "Error: User was modified concurrently!");
+        }
+
+        log.info("User patched successfully userId {} ", userId);
+
+        var userModel = userModelOptional.get();
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(utilsService.userETag(userId, userModel.getVersion()))
+                .body(userModel);
+    }
+
+    @PatchMapping("/{userId}/password")
+    public CompletableFuture<ResponseEntity<Object>> patchPassword(
+            @PathVariable(value = "userId") UUID userId,
+            @RequestBody @Validated(UserDTO.UserView.PasswordPatch.class)
+            @JsonView(UserDTO.UserView.PasswordPatch.class) UserDTO userDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("PATCH patchPassword userId received {} ", userId);
+
+        Long version = userDTO.getVersion();
+
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            version = utilsService.versionFromETag(userId, ifMatch.trim());
+
+            if (version == null) {
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Error: Invalid If-Match!"));
+            }
+        }
+
+        Optional<String> storedPasswordOptional = userService.findPasswordById(userId);
+
+        if (!storedPasswordOptional.isPresent()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found"));
+        }
+
+        String storedPassword = storedPasswordOptional.get();
+        Long expectedVersion = version;
+
+        return passwordService.verify(userDTO.getOldPassword(), storedPassword).thenCompose(check -> {
+            if (!check.isMatches()) {
+                log.warn("Mismatched old password userId {} ", userId);
+
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.CONFLICT).body("Error: MisMatched old password!"));
+            }
+
+            // the stored hash doubles as the compare-and-set guard against a concurrent password change
+            return passwordService.hash(userDTO.getPassword()).thenApplyAsync(hash -> {
+                if (!userService.updatePassword(userId, storedPassword, hash, expectedVersion)) {
+                    return notUpdated(userId, ifMatch, "Error: Password or version was modified!");
+                }
+
+                log.info("Password patched successfully userId {} ", userId);
+
+                return ResponseEntity.status(HttpStatus.OK).body("Password updated successfully");
+            }, userWriteExecutor);
+        });
+    }
+
+    private ResponseEntity<Object> notUpdated(UUID userId, String ifMatch, String conflictMessage) {
+        // the UPDATE matched no row, only now check whether the user exists at all
+        if (!userService.existsById(userId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
+
+        log.warn("Conflicting update userId {} ", userId);
+
+        if (ifMatch != null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(conflictMessage);
+        }
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(conflictMessage);
+    }
+
+    private boolean preconditionFailed(String ifMatch, UserModel userModel) {
+        return ifMatch != null && !utilsService.matchesIfMatch(ifMatch,
+                utilsService.userETag(userModel.getUserId(), userModel.getVersion()));
     }
 }
@@ -1,14 +1,19 @@
 package com.ead.authuser.controllers;
 
 import com.ead.authuser.DTOs.CourseDTO;
+import com.ead.authuser.DTOs.SubscriptionBatchResultDTO;
+import com.ead.authuser.DTOs.UserCourseBatchDTO;
 import com.ead.authuser.DTOs.UserCourseDTO;
+import com.ead.authuser.DTOs.UserProfileDTO;
 import com.ead.authuser.clients.CourseClient;
-import com.ead.authuser.models.UserCourseModel;
 import com.ead.authuser.models.UserModel;
 import com.ead.authuser.services.UserCourseService;
 import com.ead.authuser.services.UserService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -18,8 +23,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Log4j2
 @RestController
@@ -35,6 +42,15 @@ public class UserCourseController {
     @Autowired
     private UserCourseService userCourseService;
 
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final int SUBSCRIPTION_BATCH_ATTEMPTS = 2;
+
+    @Value("${ead.users-courses.subscription.batch.max-size:5000}")
+    private int maxSubscriptionBatchSize;
+
     @GetMapping("/users/{userId}/courses")
     public ResponseEntity<Page<CourseDTO>> getAllCoursesByUser(
             @PageableDefault(page = 0, size = 10, sort = "courseId", direction = Sort.Direction.ASC)
@@ -45,39 +61,129 @@ public class UserCourseController {
         return ResponseEntity.status(HttpStatus.OK).body(courseClient.getAllCoursesByUser(userId, pageable));
     }
 
+    @GetMapping("/users/{userId}/profile")
+    public CompletableFuture<ResponseEntity<Object>> getUserProfile(
+            @PageableDefault(page = 0, size = 10, sort = "courseId", direction = Sort.Direction.ASC)
+            Pageable pageable,
+            @PathVariable(value = "userId") UUID userId
+    ) {
+        // the course call runs on its own pool while this thread loads the user, so latency is the slower of the two
+        CompletableFuture<Page<CourseDTO>> coursesFuture = courseClient.getAllCoursesByUserAsync(userId, pageable);
+
+        Optional<UserModel> userModelOptional = userService.findById(userId);
+
+        if (!userModelOptional.isPresent()) {
+            coursesFuture.cancel(false);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found"));
+        }
+
+        return coursesFuture.handle((courses, exception) -> {
+            if (exception != null) {
+                log.warn("Courses unavailable for profile userId {} ", userId, exception);
+
+                return ResponseEntity.status(HttpStatus.OK).body(
+                        new UserProfileDTO(userModelOptional.get(), null, "Courses are temporarily unavailable"));
+            }
+
+            return ResponseEntity.status(HttpStatus.OK).body(
+                    new UserProfileDTO(userModelOptional.get(), courses, null));
+        });
+    }
+
     @PostMapping("/users/{userId}/courses/subscription")
     public ResponseEntity<Object> saveSubscriptionUserInCourse(
             @PathVariable(value = "userId") UUID userId,
             @RequestBody @Valid UserCourseDTO userCourseDTO
     ) {
-        Optional<UserModel> userModelOptional = userService.findById(userId);
-
-        if (!userModelOptional.isPresent()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        Optional<UUID> userCourseIdOptional;
+
+        try {
+            userCourseIdOptional = userCourseService.subscribe(userId, userCourseDTO.getCourseId());
+        } catch (DataIntegrityViolationException exception) {
+            String sqlState = sqlState(exception);
+
+            // the user is missing or was deleted while the row was inserted
+            if (FOREIGN_KEY_VIOLATION.equals(sqlState)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
+            // ON CONFLICT covers the unique pair, this only reaches here if another unique index is hit
+            if (UNIQUE_VIOLATION.equals(sqlState)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: subscription already exists!");
+            }
+            throw exception;
         }
 
-        if (userCourseService.existsByUserAndCourseId(
-                userModelOptional.get(), userCourseDTO.getCourseId())
-        ) {
+        if (!userCourseIdOptional.isPresent()) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: subscription already exists!");
         }
 
-        UserCourseModel userCourseModel = userCourseService.save(
-                userModelOptional.get().convertToUserCourseModel(userCourseDTO.getCourseId()));
+        courseClient.evictCoursesByUser(userId);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(userCourseModel);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new UserCourseDTO(userCourseIdOptional.get(), userId, userCourseDTO.getCourseId()));
+    }
+
+    @PostMapping("/users/courses/subscription")
+    public ResponseEntity<Object> saveSubscriptionUsersInCourse(
+            @RequestBody @Valid UserCourseBatchDTO userCourseBatchDTO
+    ) {
+        if (userCourseBatchDTO.getUserIds().size() > maxSubscriptionBatchSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: batch size must be between 1 and " + maxSubscriptionBatchSize + "!");
+        }
+
+        SubscriptionBatchResultDTO result = null;
+
+        for (int attempt = 1; result == null; attempt++) {
+            try {
+                result = userCourseService.subscribeAll(
+                        userCourseBatchDTO.getCourseId(), userCourseBatchDTO.getUserIds());
+            } catch (DataIntegrityViolationException exception) {
+                if (!FOREIGN_KEY_VIOLATION.equals(sqlState(exception))) {
+                    throw exception;
+                }
+
+                // a user was deleted between the existence check and the insert, a retry reports it as not found
+                log.warn("Bulk subscription courseId {} lost a user to a concurrent delete, attempt {} ",
+                        userCourseBatchDTO.getCourseId(), attempt);
+
+                if (attempt == SUBSCRIPTION_BATCH_ATTEMPTS) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body("Error: Users were deleted during the subscription, try again!");
+                }
+            }
+        }
+
+        if (result.getCreated() > 0) {
+            courseClient.evictAllCoursesByUser();
+        }
+
+        log.info("Bulk subscription courseId {} created {} existing {} notFound {} ", result.getCourseId(),
+                result.getCreated(), result.getExisting(), result.getNotFoundUserIds().size());
+
+        return ResponseEntity.status(HttpStatus.OK).body(result);
     }
 
     @DeleteMapping("users/courses/{courseId}")
     public ResponseEntity<Object> deleteUserCourseByCourse(
             @PathVariable(value = "courseId") UUID courseId
     ) {
-        if (!userCourseService.existsByCourseId(courseId)) {
+        long deleted = userCourseService.deleteUserCourseByCourse(courseId);
+
+        if (deleted == 0) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("UserCourse not found");
         }
 
-        userCourseService.deleteUserCourseByCourse(courseId);
+        courseClient.evictAllCoursesByUser();
+        log.info("UserCourse deleted successfully courseId {} rows {} ", courseId, deleted);
 
         return ResponseEntity.status(HttpStatus.OK).body("UserCourse deleted successfully");
     }
+
+    private static String sqlState(DataIntegrityViolationException exception) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(exception);
+
+        return cause instanceof SQLException ? ((SQLException) cause).getSQLState() : null;
+    }
 }
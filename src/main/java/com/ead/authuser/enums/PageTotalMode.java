@@ -0,0 +1,7 @@
+package com.ead.authuser.enums;
+
+public enum PageTotalMode {
+    EXACT,
+    ESTIMATED,
+    NONE;
+}
@@ -0,0 +1,7 @@
+package com.ead.authuser.enums;
+
+public enum SignupStatus {
+    CREATED,
+    CONFLICT,
+    INVALID;
+}
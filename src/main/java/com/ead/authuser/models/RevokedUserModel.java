@@ -0,0 +1,28 @@
+package com.ead.authuser.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "revoked_users", indexes = {
+        @Index(name = "idx_revoked_users_revocation_date", columnList = "revocation_date")
+})
+public class RevokedUserModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "revocation_date", nullable = false)
+    private LocalDateTime revocationDate;
+}
@@ -14,7 +14,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Entity
-@Table(name = "users_courses")
+@Table(name = "users_courses", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_courses_course_id_user_id", columnNames = {"course_id", "user_user_id"})
+}, indexes = {
+        @Index(name = "idx_users_courses_user_user_id", columnList = "user_user_id")
+})
 public class UserCourseModel implements Serializable {
     private static final long serialVersionUID = 1L;
 
@@ -23,8 +27,9 @@ public class UserCourseModel implements Serializable {
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_user_id")
     private UserModel user;
 
-    @Column(nullable = false)
+    @Column(name = "course_id", nullable = false)
     private UUID courseId;
 }
@@ -0,0 +1,62 @@
+package com.ead.authuser.models;
+
+import com.ead.authuser.enums.ImportFormat;
+import com.ead.authuser.enums.ImportStatus;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Table(name = "user_import_jobs", indexes = {
+        @Index(name = "idx_user_import_jobs_status_last_update", columnList = "status, last_update_date")
+})
+public class UserImportJobModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "job_id")
+    private UUID jobId;
+
+    @Column
+    private String fileName;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ImportFormat format;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ImportStatus status;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long created;
+
+    @Column(nullable = false)
+    private long conflicts;
+
+    @Column(nullable = false)
+    private long invalid;
+
+    @Column(length = 500)
+    private String failureMessage;
+
+    // the first rejected rows as a JSON array of SignupResultDTO, capped by ead.auth.import.max-reported-errors
+    @Column(columnDefinition = "text")
+    private String errors;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_update_date", nullable = false)
+    private LocalDateTime lastUpdateDate;
+}
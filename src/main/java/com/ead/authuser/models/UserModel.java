@@ -18,12 +18,16 @@ import java.util.UUID;
 @Data
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_creation_date_user_id", columnList = "creation_date, user_id"),
+        @Index(name = "idx_users_user_status", columnList = "user_status")
+})
 public class UserModel extends RepresentationModel<UserModel> implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "user_id")
     private UUID userId;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -39,7 +43,7 @@ public class UserModel extends RepresentationModel<UserModel> implements Seriali
     @Column(nullable = false, length = 150)
     private String fullName;
 
-    @Column(nullable = false)
+    @Column(name = "user_status", nullable = false)
     @Enumerated(EnumType.STRING)
     private UserStatus userStatus;
 
@@ -56,7 +60,7 @@ public class UserModel extends RepresentationModel<UserModel> implements Seriali
     @Column
     private String imageUrl;
 
-    @Column(nullable = false)
+    @Column(name = "creation_date", nullable = false)
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss-3:00")
     private LocalDateTime creationDate;
 
@@ -64,6 +68,10 @@ public class UserModel extends RepresentationModel<UserModel> implements Seriali
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss-3:00")
     private LocalDateTime lastUpdateDate;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @OneToMany( mappedBy = "user", fetch = FetchType.LAZY)
     private Set<UserCourseModel> usersCourses;
@@ -0,0 +1,6 @@
+package com.ead.authuser.projections;
+
+public interface UserIdentityProjection {
+    String getUsername();
+    String getEmail();
+}
@@ -0,0 +1,9 @@
+package com.ead.authuser.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface UserRevocationProjection {
+    UUID getUserId();
+    LocalDateTime getLastUpdateDate();
+}
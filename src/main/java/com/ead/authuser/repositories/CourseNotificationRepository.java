@@ -0,0 +1,23 @@
+package com.ead.authuser.repositories;
+
+import com.ead.authuser.models.CourseNotificationModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CourseNotificationRepository extends JpaRepository<CourseNotificationModel, UUID> {
+
+    @Query(value = "SELECT * FROM course_notifications WHERE status = 'PENDING' AND next_attempt_date <= :now " +
+            "ORDER BY next_attempt_date LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<CourseNotificationModel> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM course_notifications WHERE id IN (SELECT id FROM course_notifications " +
+            "WHERE status = 'SENT' AND last_update_date < :before LIMIT :limit)", nativeQuery = true)
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,22 @@
+package com.ead.authuser.repositories;
+
+import com.ead.authuser.models.RevokedUserModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface RevokedUserRepository extends JpaRepository<RevokedUserModel, UUID> {
+
+    List<RevokedUserModel> findAllByRevocationDateAfter(LocalDateTime revocationDate);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedUserModel r WHERE r.revocationDate < :revocationDate")
+    int deleteAllRevokedBefore(@Param("revocationDate") LocalDateTime revocationDate);
+}
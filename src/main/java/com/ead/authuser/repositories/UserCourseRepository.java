@@ -3,13 +3,14 @@ package com.ead.authuser.repositories;
 import com.ead.authuser.models.UserCourseModel;
 import com.ead.authuser.models.UserModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
 
-public interface UserCourseRepository extends JpaRepository<UserCourseModel, UUID> {
+public interface UserCourseRepository extends JpaRepository<UserCourseModel, UUID>, UserCourseRepositoryCustom {
     boolean existsByUserAndCourseId(UserModel userModel, UUID courseId);
 
     @Query(value="SELECT * FROM users_courses WHERE user_user_id = :userId", nativeQuery = true)
@@ -17,5 +18,12 @@ public interface UserCourseRepository extends JpaRepository<UserCourseModel, UUI
 
     boolean existsByCourseId(UUID courseId);
 
-    void deleteAllByCourseId(UUID courseId);
+    @Modifying
+    @Query(value="DELETE FROM users_courses WHERE user_user_id = :userId", nativeQuery = true)
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value="DELETE FROM users_courses WHERE id IN " +
+            "(SELECT id FROM users_courses WHERE course_id = :courseId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByCourseId(@Param("courseId") UUID courseId, @Param("limit") int limit);
 }
@@ -0,0 +1,11 @@
+package com.ead.authuser.repositories;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserCourseRepositoryCustom {
+    int insertAllIgnoringExisting(UUID courseId, Collection<UUID> userIds);
+
+    Optional<UUID> insertIgnoringExisting(UUID courseId, UUID userId);
+}
@@ -0,0 +1,28 @@
+package com.ead.authuser.repositories;
+
+import com.ead.authuser.models.UserImportJobModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface UserImportJobRepository extends JpaRepository<UserImportJobModel, UUID> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserImportJobModel j SET j.status = com.ead.authuser.enums.ImportStatus.FAILED, " +
+            "j.failureMessage = :failureMessage, j.finishedAt = :now, j.lastUpdateDate = :now " +
+            "WHERE j.status = com.ead.authuser.enums.ImportStatus.RUNNING AND j.lastUpdateDate < :before")
+    int failRunningNotUpdatedSince(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now,
+                                   @Param("failureMessage") String failureMessage);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserImportJobModel j " +
+            "WHERE j.status <> com.ead.authuser.enums.ImportStatus.RUNNING AND j.finishedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
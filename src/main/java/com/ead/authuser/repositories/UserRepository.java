@@ -1,12 +1,63 @@
 package com.ead.authuser.repositories;
 
+import com.ead.authuser.enums.UserStatus;
 import com.ead.authuser.models.UserModel;
+import com.ead.authuser.projections.UserIdentityProjection;
+import com.ead.authuser.projections.UserRevocationProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<UserModel, UUID>, JpaSpecificationExecutor<UserModel> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface UserRepository extends JpaRepository<UserModel, UUID>, JpaSpecificationExecutor<UserModel>,
+        UserRepositoryCustom {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username AS username, u.email AS email FROM UserModel u")
+    Stream<UserIdentityProjection> streamAllIdentities();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username AS username, u.email AS email FROM UserModel u WHERE u.creationDate >= :since")
+    Stream<UserIdentityProjection> streamIdentitiesCreatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT u.username AS username, u.email AS email FROM UserModel u " +
+            "WHERE u.username IN :usernames OR u.email IN :emails")
+    List<UserIdentityProjection> findIdentitiesByUsernameInOrEmailIn(
+            @Param("usernames") Collection<String> usernames, @Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.userId FROM UserModel u WHERE u.userId IN :userIds")
+    List<UUID> findExistingIds(@Param("userIds") Collection<UUID> userIds);
+
+    Optional<UserModel> findByUsername(String username);
+
+    @Query("SELECT u.userId AS userId, u.lastUpdateDate AS lastUpdateDate FROM UserModel u " +
+            "WHERE u.userStatus = :userStatus")
+    List<UserRevocationProjection> findRevocationsByUserStatus(@Param("userStatus") UserStatus userStatus);
+
+    @Query("SELECT u.password FROM UserModel u WHERE u.userId = :userId")
+    Optional<String> findPasswordById(@Param("userId") UUID userId);
+
+    // the version moves so ETags change with the row, last_update_date stays since it dates a block for revocation
+    @Modifying
+    @Query("UPDATE UserModel u SET u.password = :password, u.version = u.version + 1 " +
+            "WHERE u.userId = :userId AND u.password = :oldPassword")
+    int rehashPassword(@Param("userId") UUID userId, @Param("oldPassword") String oldPassword,
+                       @Param("password") String password);
+
+    @Query("SELECT u.version FROM UserModel u WHERE u.userId = :userId")
+    Optional<Long> findVersionById(@Param("userId") UUID userId);
 }
@@ -0,0 +1,35 @@
+package com.ead.authuser.repositories;
+
+import com.ead.authuser.DTOs.UserFilterDTO;
+import com.ead.authuser.DTOs.UserPatchDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
+import com.ead.authuser.models.UserModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+    Page<UserSummaryDTO> findAllSummaries(Specification<UserModel> spec, Pageable pageable);
+
+    Slice<UserSummaryDTO> findAllSummariesSlice(Specification<UserModel> spec, Pageable pageable);
+
+    long estimateCount(UserFilterDTO filter, UUID courseId);
+
+    Stream<UserModel> streamAll(Specification<UserModel> spec, Sort sort);
+
+    void detach(UserModel userModel);
+
+    List<UserSummaryDTO> search(String term, int limit);
+
+    Optional<UserModel> patch(UUID userId, UserPatchDTO patch, LocalDateTime lastUpdateDate);
+
+    int updatePassword(UUID userId, String oldPassword, String password, Long version, LocalDateTime lastUpdateDate);
+}
@@ -0,0 +1,53 @@
+package com.ead.authuser.repositories.impl;
+
+import com.ead.authuser.repositories.UserCourseRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class UserCourseRepositoryCustomImpl implements UserCourseRepositoryCustom {
+
+    private static final String INSERT_IGNORING_EXISTING = "INSERT INTO users_courses (id, course_id, user_user_id) " +
+            "VALUES (?, ?, ?) ON CONFLICT (course_id, user_user_id) DO NOTHING";
+
+    private static final String INSERT_RETURNING_ID = INSERT_IGNORING_EXISTING + " RETURNING id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ead.users-courses.insert-batch-size:500}")
+    private int insertBatchSize;
+
+    @Override
+    public int insertAllIgnoringExisting(UUID courseId, Collection<UUID> userIds) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IGNORING_EXISTING, userIds, insertBatchSize,
+                (statement, userId) -> {
+                    statement.setObject(1, UUID.randomUUID());
+                    statement.setObject(2, courseId);
+                    statement.setObject(3, userId);
+                });
+
+        // ON CONFLICT DO NOTHING reports 0 for a row that was already there
+        int created = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                created += count;
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public Optional<UUID> insertIgnoringExisting(UUID courseId, UUID userId) {
+        List<UUID> ids = jdbcTemplate.query(INSERT_RETURNING_ID,
+                (resultSet, rowNum) -> resultSet.getObject(1, UUID.class),
+                UUID.randomUUID(), courseId, userId);
+
+        return ids.stream().findFirst();
+    }
+}
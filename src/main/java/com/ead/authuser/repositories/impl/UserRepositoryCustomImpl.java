@@ -0,0 +1,360 @@
+package com.ead.authuser.repositories.impl;
+
+import com.ead.authuser.DTOs.UserFilterDTO;
+import com.ead.authuser.DTOs.UserPatchDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
+import com.ead.authuser.models.UserModel;
+import com.ead.authuser.repositories.UserRepositoryCustom;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.PostgresUUIDType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ead.users.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Value("${ead.users.search.similarity-threshold:0.3}")
+    private double searchSimilarityThreshold;
+
+    // the % operators and the prefix LIKEs are what the gin_trgm_ops expression indexes can answer, similarity()
+    // is then only computed for the rows they return
+    private static final String SEARCH_CANDIDATES_QUERY = "SELECT user_id FROM users " +
+            "WHERE upper(username) % :term OR upper(email) % :term OR upper(full_name) % :term " +
+            "OR upper(username) LIKE :prefix OR upper(email) LIKE :prefix OR upper(full_name) LIKE :prefix " +
+            "ORDER BY CASE WHEN upper(username) LIKE :prefix OR upper(email) LIKE :prefix " +
+            "OR upper(full_name) LIKE :prefix THEN 0 ELSE 1 END, " +
+            "greatest(similarity(upper(username), :term), similarity(upper(email), :term), " +
+            "similarity(upper(full_name), :term)) DESC, user_id " +
+            "LIMIT :limit";
+
+    private static final String SEARCH_QUERY = "SELECT new com.ead.authuser.DTOs.UserSummaryDTO(" +
+            "u.userId, u.username, u.email, u.fullName, u.userStatus, u.userType, u.phoneNumber, u.cpf, " +
+            "u.imageUrl, u.creationDate, u.lastUpdateDate, u.version) FROM UserModel u " +
+            "WHERE u.userId IN :userIds";
+
+    @Override
+    public Page<UserSummaryDTO> findAllSummaries(Specification<UserModel> spec, Pageable pageable) {
+        TypedQuery<UserSummaryDTO> typedQuery = createSummaryQuery(spec, pageable.getSort());
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<UserSummaryDTO> findAllSummariesSlice(Specification<UserModel> spec, Pageable pageable) {
+        TypedQuery<UserSummaryDTO> typedQuery = createSummaryQuery(spec, pageable.getSort());
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        // one extra row tells us whether a next slice exists without a COUNT query
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+
+        List<UserSummaryDTO> content = typedQuery.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public Stream<UserModel> streamAll(Specification<UserModel> spec, Sort sort) {
+        TypedQuery<UserModel> typedQuery = createQuery(spec, sort);
+        // the Postgres driver only uses a server-side cursor when a fetch size is set inside a transaction
+        typedQuery.setHint(HINT_FETCH_SIZE, exportFetchSize);
+        typedQuery.setHint(HINT_READONLY, true);
+
+        return typedQuery.getResultStream();
+    }
+
+    @Override
+    public void detach(UserModel userModel) {
+        entityManager.detach(userModel);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<UserSummaryDTO> search(String term, int limit) {
+        String upperTerm = term.toUpperCase(Locale.ROOT);
+        String escaped = upperTerm.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+
+        // transaction-local, so pooled connections keep the server default
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.similarity_threshold', :threshold, true)")
+                .setParameter("threshold", Double.toString(searchSimilarityThreshold))
+                .getSingleResult();
+
+        List<UUID> userIds = entityManager.createNativeQuery(SEARCH_CANDIDATES_QUERY)
+                .setParameter("term", upperTerm)
+                .setParameter("prefix", escaped + "%")
+                .setParameter("limit", limit)
+                .unwrap(NativeQuery.class)
+                .addScalar("user_id", PostgresUUIDType.INSTANCE)
+                .getResultList();
+
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<UUID, UserSummaryDTO> users = new HashMap<>();
+        for (UserSummaryDTO user : entityManager.createQuery(SEARCH_QUERY, UserSummaryDTO.class)
+                .setParameter("userIds", userIds)
+                .getResultList()) {
+            users.put(user.getUserId(), user);
+        }
+
+        List<UserSummaryDTO> ranked = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            UserSummaryDTO user = users.get(userId);
+            if (user != null) {
+                ranked.add(user);
+            }
+        }
+        return ranked;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Optional<UserModel> patch(UUID userId, UserPatchDTO patch, LocalDateTime lastUpdateDate) {
+        LocalDateTime updateDate = lastUpdateDate.truncatedTo(ChronoUnit.MICROS);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder(
+                "UPDATE users SET version = version + 1, last_update_date = :lastUpdateDate");
+        parameters.put("lastUpdateDate", updateDate);
+
+        appendSet(sql, parameters, "full_name", "fullName", patch.getFullName());
+        appendSet(sql, parameters, "phone_number", "phoneNumber", patch.getPhoneNumber());
+        appendSet(sql, parameters, "cpf", "cpf", patch.getCpf());
+        appendSet(sql, parameters, "image_url", "imageUrl", patch.getImageUrl());
+        appendSet(sql, parameters, "user_type", "userType",
+                patch.getUserType() == null ? null : patch.getUserType().name());
+
+        sql.append(" WHERE user_id = :userId");
+        parameters.put("userId", userId);
+
+        if (patch.getVersion() != null) {
+            sql.append(" AND version = :version");
+            parameters.put("version", patch.getVersion());
+        }
+
+        sql.append(" RETURNING *");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), UserModel.class);
+        parameters.forEach(query::setParameter);
+
+        List<UserModel> result = query.getResultList();
+
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+
+        UserModel userModel = result.get(0);
+
+        // an instance already managed by this persistence context is returned as-is instead of the new row
+        if (!updateDate.equals(userModel.getLastUpdateDate())) {
+            entityManager.refresh(userModel);
+        }
+
+        return Optional.of(userModel);
+    }
+
+    @Override
+    public int updatePassword(UUID userId, String oldPassword, String password, Long version,
+                              LocalDateTime lastUpdateDate) {
+        String sql = "UPDATE users SET version = version + 1, password = :password, " +
+                "last_update_date = :lastUpdateDate WHERE user_id = :userId AND password = :oldPassword";
+
+        if (version != null) {
+            sql += " AND version = :version";
+        }
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("password", password)
+                .setParameter("lastUpdateDate", lastUpdateDate)
+                .setParameter("userId", userId)
+                .setParameter("oldPassword", oldPassword);
+
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+
+        return query.executeUpdate();
+    }
+
+    private void appendSet(StringBuilder sql, Map<String, Object> parameters, String column, String parameter,
+                           Object value) {
+        if (value != null) {
+            sql.append(", ").append(column).append(" = :").append(parameter);
+            parameters.put(parameter, value);
+        }
+    }
+
+    private TypedQuery<UserModel> createQuery(Specification<UserModel> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserModel> query = cb.createQuery(UserModel.class);
+        Root<UserModel> root = query.from(UserModel.class);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        query.select(root);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query);
+    }
+
+    private TypedQuery<UserSummaryDTO> createSummaryQuery(Specification<UserModel> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummaryDTO> query = cb.createQuery(UserSummaryDTO.class);
+        Root<UserModel> root = query.from(UserModel.class);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        // selects only the exposed columns into unmanaged DTOs, nothing enters the persistence context
+        query.select(cb.construct(UserSummaryDTO.class,
+                root.get("userId"), root.get("username"), root.get("email"), root.get("fullName"),
+                root.get("userStatus"), root.get("userType"), root.get("phoneNumber"), root.get("cpf"),
+                root.get("imageUrl"), root.get("creationDate"), root.get("lastUpdateDate"), root.get("version")));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<UserModel> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<UserModel> root = query.from(UserModel.class);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        query.orderBy(Collections.emptyList());
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public long estimateCount(UserFilterDTO filter, UUID courseId) {
+        // the same predicates the listing spec produces, spelled out so the explained SQL is ours and not Hibernate's
+        StringBuilder sql = new StringBuilder("SELECT u.user_id FROM users u WHERE true");
+        List<Object> parameters = new ArrayList<>();
+
+        if (filter.getUserType() != null) {
+            sql.append(" AND u.user_type = ?");
+            parameters.add(filter.getUserType().toUpperCase(Locale.ROOT));
+        }
+        if (filter.getUserStatus() != null) {
+            sql.append(" AND u.user_status = ?");
+            parameters.add(filter.getUserStatus().toUpperCase(Locale.ROOT));
+        }
+        if (filter.getEmail() != null) {
+            sql.append(" AND upper(u.email) LIKE ?");
+            parameters.add("%" + filter.getEmail().toUpperCase(Locale.ROOT) + "%");
+        }
+        if (filter.getFullName() != null) {
+            sql.append(" AND upper(u.full_name) LIKE ?");
+            parameters.add("%" + filter.getFullName().toUpperCase(Locale.ROOT) + "%");
+        }
+        if (courseId != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM users_courses uc WHERE uc.user_user_id = u.user_id" +
+                    " AND uc.course_id = ?)");
+            parameters.add(courseId);
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+
+        if (parameters.isEmpty()) {
+            // unfiltered, the row count kept by VACUUM/ANALYZE is enough, -1 until the table was first analyzed
+            long reltuples = session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass");
+                     ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong(1) : -1L;
+                }
+            });
+            if (reltuples >= 0) {
+                return reltuples;
+            }
+        }
+
+        String plan = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+
+        try {
+            JsonNode planRoot = objectMapper.readTree(plan);
+            return planRoot.get(0).get("Plan").get("Plan Rows").asLong();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
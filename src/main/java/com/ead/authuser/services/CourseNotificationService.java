@@ -0,0 +1,20 @@
+package com.ead.authuser.services;
+
+import com.ead.authuser.models.CourseNotificationModel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CourseNotificationService {
+
+    void enqueueUserDeleted(UUID userId);
+
+    List<CourseNotificationModel> claimDue(int limit);
+
+    void markSent(List<CourseNotificationModel> notifications);
+
+    void markFailed(List<CourseNotificationModel> notifications, String error);
+
+    int deleteSentBefore(LocalDateTime before, int limit);
+}
@@ -0,0 +1,17 @@
+package com.ead.authuser.services;
+
+import com.ead.authuser.DTOs.PasswordCheckDTO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface PasswordService {
+
+    CompletableFuture<String> hash(String rawPassword);
+
+    CompletableFuture<List<String>> hashAll(List<String> rawPasswords);
+
+    CompletableFuture<PasswordCheckDTO> verify(String rawPassword, String storedPassword);
+
+    CompletableFuture<PasswordCheckDTO> verifyUnknownUser(String rawPassword);
+}
@@ -0,0 +1,20 @@
+package com.ead.authuser.services;
+
+import com.ead.authuser.DTOs.TokenClaimsDTO;
+import com.ead.authuser.DTOs.TokenDTO;
+import com.ead.authuser.models.UserModel;
+
+import java.util.Optional;
+
+public interface TokenService {
+
+    String SERVICE_SIGNATURE_HEADER = "X-Ead-Service-Signature";
+
+    TokenDTO issue(UserModel userModel);
+
+    Optional<TokenClaimsDTO> verify(String token);
+
+    String signServiceRequest(String method, String path);
+
+    boolean verifyServiceRequest(String method, String path, String signature);
+}
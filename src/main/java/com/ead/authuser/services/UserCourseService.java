@@ -1,8 +1,11 @@
 package com.ead.authuser.services;
 
+import com.ead.authuser.DTOs.SubscriptionBatchResultDTO;
 import com.ead.authuser.models.UserCourseModel;
 import com.ead.authuser.models.UserModel;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface UserCourseService {
@@ -12,5 +15,9 @@ public interface UserCourseService {
 
     boolean existsByCourseId(UUID courseId);
 
-    void deleteUserCourseByCourse(UUID courseId);
+    long deleteUserCourseByCourse(UUID courseId);
+
+    Optional<UUID> subscribe(UUID userId, UUID courseId);
+
+    SubscriptionBatchResultDTO subscribeAll(UUID courseId, List<UUID> userIds);
 }
@@ -0,0 +1,16 @@
+package com.ead.authuser.services;
+
+import com.ead.authuser.DTOs.ImportJobDTO;
+import com.ead.authuser.enums.ImportFormat;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserImportService {
+
+    ImportJobDTO startImport(MultipartFile file, ImportFormat format) throws IOException;
+
+    Optional<ImportJobDTO> findJob(UUID jobId);
+}
@@ -0,0 +1,12 @@
+package com.ead.authuser.services;
+
+import com.ead.authuser.DTOs.SignupResultDTO;
+import com.ead.authuser.DTOs.UserDTO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface UserRegistrationService {
+
+    CompletableFuture<List<SignupResultDTO>> registerAll(List<UserDTO> userDTOs);
+}
@@ -1,13 +1,21 @@
 package com.ead.authuser.services;
 
+import com.ead.authuser.DTOs.UserCursorDTO;
+import com.ead.authuser.DTOs.UserFilterDTO;
+import com.ead.authuser.DTOs.UserPatchDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
 import com.ead.authuser.models.UserModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
 
@@ -15,7 +23,22 @@ public interface UserService {
     Optional<UserModel> findById(UUID userId);
     void delete(UserModel userModel);
     void save(UserModel userModel);
+    void saveAll(List<UserModel> userModels);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-    Page<UserModel> findAll(Specification<UserModel> spec, Pageable pageable);
+    boolean probablyExistsByUsername(String username);
+    boolean probablyExistsByEmail(String email);
+    Page<UserSummaryDTO> findAllSummaries(Specification<UserModel> spec, Pageable pageable);
+    Slice<UserSummaryDTO> findAllSummariesSlice(Specification<UserModel> spec, Pageable pageable);
+    long estimateCount(UserFilterDTO filter, UUID courseId);
+    Slice<UserSummaryDTO> findAllByCursor(Specification<UserModel> spec, UserCursorDTO after, int size);
+    void exportAll(Specification<UserModel> spec, OutputStream outputStream) throws IOException;
+    boolean existsById(UUID userId);
+    Optional<Long> findVersionById(UUID userId);
+    List<UserSummaryDTO> search(String term, int limit);
+    Optional<UserModel> patch(UUID userId, UserPatchDTO patch);
+    boolean updatePassword(UUID userId, String oldPassword, String password, Long version);
+    Optional<String> findPasswordById(UUID userId);
+    Optional<UserModel> findByUsername(String username);
+    CompletableFuture<Boolean> checkPassword(UserModel userModel, String rawPassword);
 }
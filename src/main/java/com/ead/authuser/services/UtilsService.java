@@ -1,10 +1,27 @@
 package com.ead.authuser.services;
 
+import com.ead.authuser.DTOs.UserCursorDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.UUID;
 
 public interface UtilsService {
 
     String createUrlGetAllCoursesByUser(UUID userId, Pageable pageable);
+
+    String encodeUserCursor(UserCursorDTO cursor);
+
+    UserCursorDTO decodeUserCursor(String cursor);
+
+    String userETag(UUID userId, Long version);
+
+    String usersETag(Slice<UserSummaryDTO> users);
+
+    Long versionFromETag(UUID userId, String eTag);
+
+    boolean matchesIfNoneMatch(String ifNoneMatch, String eTag);
+
+    boolean matchesIfMatch(String ifMatch, String eTag);
 }
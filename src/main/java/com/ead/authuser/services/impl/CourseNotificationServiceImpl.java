@@ -0,0 +1,118 @@
+package com.ead.authuser.services.impl;
+
+import com.ead.authuser.enums.NotificationStatus;
+import com.ead.authuser.enums.NotificationType;
+import com.ead.authuser.models.CourseNotificationModel;
+import com.ead.authuser.repositories.CourseNotificationRepository;
+import com.ead.authuser.services.CourseNotificationService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+@Log4j2
+@Service
+public class CourseNotificationServiceImpl implements CourseNotificationService {
+
+    @Autowired
+    private CourseNotificationRepository courseNotificationRepository;
+
+    @Value("${ead.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${ead.outbox.initial-backoff-seconds:5}")
+    private long initialBackoffSeconds;
+
+    @Value("${ead.outbox.max-backoff-seconds:600}")
+    private long maxBackoffSeconds;
+
+    @Value("${ead.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void enqueueUserDeleted(UUID userId) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC-3"));
+
+        var notification = new CourseNotificationModel();
+        notification.setUserId(userId);
+        notification.setType(NotificationType.USER_DELETED);
+        notification.setStatus(NotificationStatus.PENDING);
+        notification.setAttempts(0);
+        notification.setNextAttemptDate(now);
+        notification.setCreationDate(now);
+        notification.setLastUpdateDate(now);
+
+        courseNotificationRepository.save(notification);
+    }
+
+    @Transactional
+    @Override
+    public List<CourseNotificationModel> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC-3"));
+
+        // SKIP LOCKED lets several instances drain the table without picking the same rows
+        List<CourseNotificationModel> notifications = courseNotificationRepository.findDueForUpdate(now, limit);
+
+        // pushing nextAttemptDate out leases the rows, so no row lock is held during the remote calls
+        for (CourseNotificationModel notification : notifications) {
+            notification.setNextAttemptDate(now.plusSeconds(leaseSeconds));
+            notification.setLastUpdateDate(now);
+        }
+
+        return notifications;
+    }
+
+    @Transactional
+    @Override
+    public void markSent(List<CourseNotificationModel> notifications) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC-3"));
+
+        for (CourseNotificationModel notification : notifications) {
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setLastError(null);
+            notification.setLastUpdateDate(now);
+        }
+
+        courseNotificationRepository.saveAll(notifications);
+    }
+
+    @Transactional
+    @Override
+    public void markFailed(List<CourseNotificationModel> notifications, String error) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC-3"));
+
+        for (CourseNotificationModel notification : notifications) {
+            int attempts = notification.getAttempts() + 1;
+            long backoffSeconds = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+
+            notification.setAttempts(attempts);
+            notification.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 500)));
+            notification.setLastUpdateDate(now);
+
+            if (attempts >= maxAttempts) {
+                notification.setStatus(NotificationStatus.FAILED);
+                log.error("Course notification {} for userId {} failed after {} attempts",
+                        notification.getId(), notification.getUserId(), attempts);
+            } else {
+                notification.setNextAttemptDate(now.plusSeconds(backoffSeconds));
+            }
+        }
+
+        courseNotificationRepository.saveAll(notifications);
+    }
+
+    @Transactional
+    @Override
+    public int deleteSentBefore(LocalDateTime before, int limit) {
+        return courseNotificationRepository.deleteSentBefore(before, limit);
+    }
+}
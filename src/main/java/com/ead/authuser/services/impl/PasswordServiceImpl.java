@@ -0,0 +1,130 @@
+package com.ead.authuser.services.impl;
+
+import com.ead.authuser.DTOs.PasswordCheckDTO;
+import com.ead.authuser.services.PasswordService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+@Log4j2
+@Service
+public class PasswordServiceImpl implements PasswordService {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    @Autowired
+    private ThreadPoolTaskExecutor passwordHashExecutor;
+
+    @Autowired
+    private ThreadPoolTaskExecutor passwordBulkHashExecutor;
+
+    @Value("${ead.password.bcrypt.cost:10}")
+    private int cost;
+
+    @Value("${ead.password.legacy-plaintext.enabled:false}")
+    private boolean legacyPlaintextEnabled;
+
+    private BCryptPasswordEncoder encoder;
+
+    private String unknownUserHash;
+
+    @PostConstruct
+    public void init() {
+        encoder = new BCryptPasswordEncoder(cost);
+        // hashed at the configured cost so checking it takes exactly as long as checking a real user
+        unknownUserHash = encoder.encode("unknown-user");
+    }
+
+    @Override
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> hashAll(List<String> rawPasswords) {
+        // one task per pool thread instead of one per password, so a large batch can't fill the queue,
+        // and on the bulk pool, so thousands of hashes never queue ahead of an interactive signup or login
+        int slices = Math.min(passwordBulkHashExecutor.getMaxPoolSize(), rawPasswords.size());
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(slices);
+
+        for (int slice = 0; slice < slices; slice++) {
+            List<String> part = rawPasswords.subList(
+                    rawPasswords.size() * slice / slices, rawPasswords.size() * (slice + 1) / slices);
+
+            futures.add(submit(passwordBulkHashExecutor, () -> {
+                List<String> hashes = new ArrayList<>(part.size());
+                for (String rawPassword : part) {
+                    hashes.add(encoder.encode(rawPassword));
+                }
+                return hashes;
+            }));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<String> hashes = new ArrayList<>(rawPasswords.size());
+            for (CompletableFuture<List<String>> future : futures) {
+                hashes.addAll(future.join());
+            }
+            return hashes;
+        });
+    }
+
+    @Override
+    public CompletableFuture<PasswordCheckDTO> verify(String rawPassword, String storedPassword) {
+        if (storedPassword == null || rawPassword == null) {
+            return CompletableFuture.completedFuture(new PasswordCheckDTO(false, false));
+        }
+
+        // rows written before hashing was introduced still hold the plain password until
+        // db/owner/hash-plaintext-passwords.sql has run, only then can the fallback be switched off
+        if (!BCRYPT_PATTERN.matcher(storedPassword).matches()) {
+            if (!legacyPlaintextEnabled) {
+                log.warn("Stored password is not a BCrypt hash and the plain text fallback is disabled");
+                return CompletableFuture.completedFuture(new PasswordCheckDTO(false, false));
+            }
+
+            boolean matches = MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+            return CompletableFuture.completedFuture(new PasswordCheckDTO(matches, matches));
+        }
+
+        return submit(() -> {
+            boolean matches = encoder.matches(rawPassword, storedPassword);
+            return new PasswordCheckDTO(matches, matches && encoder.upgradeEncoding(storedPassword));
+        });
+    }
+
+    @Override
+    public CompletableFuture<PasswordCheckDTO> verifyUnknownUser(String rawPassword) {
+        return submit(() -> {
+            encoder.matches(rawPassword, unknownUserHash);
+            return new PasswordCheckDTO(false, false);
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return submit(passwordHashExecutor, task);
+    }
+
+    private static <T> CompletableFuture<T> submit(ThreadPoolTaskExecutor executor, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (TaskRejectedException exception) {
+            // a full queue surfaces through the future like any other failure, callers map it to 503
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+}
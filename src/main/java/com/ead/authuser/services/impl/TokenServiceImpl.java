@@ -0,0 +1,181 @@
+package com.ead.authuser.services.impl;
+
+import com.ead.authuser.DTOs.TokenClaimsDTO;
+import com.ead.authuser.DTOs.TokenDTO;
+import com.ead.authuser.components.TokenRevocationList;
+import com.ead.authuser.enums.UserStatus;
+import com.ead.authuser.enums.UserType;
+import com.ead.authuser.models.UserModel;
+import com.ead.authuser.services.TokenService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${ead.auth.token.secret}")
+    private String secret;
+
+    @Value("${ead.auth.token.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    @Value("${ead.auth.token.issuer:ead-authuser}")
+    private String issuer;
+
+    @Value("${ead.auth.service.max-clock-skew-seconds:60}")
+    private long maxClockSkewSeconds;
+
+    private SecretKeySpec key;
+
+    // Mac is not thread safe and getInstance is a provider lookup, so each thread keeps its own
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    @PostConstruct
+    public void init() {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < 32) {
+            throw new IllegalStateException("ead.auth.token.secret must be at least 32 bytes");
+        }
+        key = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    @Override
+    public TokenDTO issue(UserModel userModel) {
+        long now = Instant.now().getEpochSecond();
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", issuer);
+        claims.put("sub", userModel.getUserId().toString());
+        claims.put("userType", userModel.getUserType().name());
+        claims.put("userStatus", userModel.getUserStatus().name());
+        claims.put("iat", now);
+        claims.put("exp", now + ttlSeconds);
+
+        try {
+            String signingInput = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+
+            return new TokenDTO(signingInput + "." + ENCODER.encodeToString(sign(signingInput)), "Bearer", ttlSeconds);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize token claims", exception);
+        }
+    }
+
+    @Override
+    public Optional<TokenClaimsDTO> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        int payloadStart = token.indexOf('.');
+        int signatureStart = token.indexOf('.', payloadStart + 1);
+
+        // only the header this service issues is accepted, which also rules out alg=none and key confusion
+        if (payloadStart < 0 || signatureStart < 0 || token.indexOf('.', signatureStart + 1) >= 0
+                || !HEADER.equals(token.substring(0, payloadStart))) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(token.substring(0, signatureStart)))) {
+                return Optional.empty();
+            }
+
+            JsonNode claims = objectMapper.readTree(DECODER.decode(token.substring(payloadStart + 1, signatureStart)));
+            long expiresAt = claims.path("exp").asLong();
+
+            if (!issuer.equals(claims.path("iss").asText()) || expiresAt <= Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+
+            UUID userId = UUID.fromString(claims.path("sub").asText());
+            if (tokenRevocationList.isRevoked(userId)) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new TokenClaimsDTO(userId,
+                    UserType.valueOf(claims.path("userType").asText()),
+                    UserStatus.valueOf(claims.path("userStatus").asText()),
+                    claims.path("iat").asLong(),
+                    expiresAt));
+        } catch (IllegalArgumentException | IOException exception) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String signServiceRequest(String method, String path) {
+        long now = Instant.now().getEpochSecond();
+
+        return now + "." + ENCODER.encodeToString(sign(serviceSigningInput(method, path, now)));
+    }
+
+    @Override
+    public boolean verifyServiceRequest(String method, String path, String signature) {
+        int separator = signature == null ? -1 : signature.indexOf('.');
+        if (separator < 0) {
+            return false;
+        }
+
+        try {
+            long timestamp = Long.parseLong(signature.substring(0, separator));
+            if (Math.abs(Instant.now().getEpochSecond() - timestamp) > maxClockSkewSeconds) {
+                return false;
+            }
+
+            return MessageDigest.isEqual(DECODER.decode(signature.substring(separator + 1)),
+                    sign(serviceSigningInput(method, path, timestamp)));
+        } catch (IllegalArgumentException exception) {
+            return false;
+        }
+    }
+
+    // a token signing input always starts with the encoded header, so the prefix keeps both kinds of signature apart
+    private static String serviceSigningInput(String method, String path, long timestamp) {
+        return "service:" + method + " " + path + " " + timestamp;
+    }
+
+    private byte[] sign(String signingInput) {
+        return macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("HmacSHA256 is not available", exception);
+        }
+    }
+}
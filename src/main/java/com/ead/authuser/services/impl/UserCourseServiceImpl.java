@@ -1,21 +1,43 @@
 package com.ead.authuser.services.impl;
 
+import com.ead.authuser.DTOs.SubscriptionBatchResultDTO;
 import com.ead.authuser.models.UserCourseModel;
 import com.ead.authuser.models.UserModel;
 import com.ead.authuser.repositories.UserCourseRepository;
+import com.ead.authuser.repositories.UserRepository;
 import com.ead.authuser.services.UserCourseService;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+@Log4j2
 @Service
 public class UserCourseServiceImpl implements UserCourseService {
 
     @Autowired
     private UserCourseRepository userCourseRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${ead.users-courses.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    @Transactional(readOnly = true)
     @Override
     public boolean existsByUserAndCourseId(UserModel userModel, UUID courseId) {
         return userCourseRepository.existsByUserAndCourseId(userModel, courseId);
@@ -26,14 +48,51 @@ public class UserCourseServiceImpl implements UserCourseService {
         return userCourseRepository.save(userCourseModel);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public boolean existsByCourseId(UUID courseId) {
         return userCourseRepository.existsByCourseId(courseId);
     }
 
+    @Override
+    public long deleteUserCourseByCourse(UUID courseId) {
+        long deleted = 0;
+        int chunk;
+
+        // each chunk commits on its own so row locks are released between statements
+        do {
+            chunk = transactionTemplate.execute(status ->
+                    userCourseRepository.deleteChunkByCourseId(courseId, deleteChunkSize));
+            deleted += chunk;
+        } while (chunk == deleteChunkSize);
+
+        log.debug("Deleted {} users_courses rows for courseId {}", deleted, courseId);
+        return deleted;
+    }
+
+    @Override
+    public Optional<UUID> subscribe(UUID userId, UUID courseId) {
+        return userCourseRepository.insertIgnoringExisting(courseId, userId);
+    }
+
     @Transactional
     @Override
-    public void deleteUserCourseByCourse(UUID courseId) {
-        userCourseRepository.deleteAllByCourseId(courseId);
+    public SubscriptionBatchResultDTO subscribeAll(UUID courseId, List<UUID> userIds) {
+        Set<UUID> requested = new LinkedHashSet<>(userIds);
+        Set<UUID> found = new HashSet<>(userRepository.findExistingIds(requested));
+
+        List<UUID> notFound = new ArrayList<>();
+        List<UUID> toInsert = new ArrayList<>(found.size());
+        for (UUID userId : requested) {
+            if (found.contains(userId)) {
+                toInsert.add(userId);
+            } else {
+                notFound.add(userId);
+            }
+        }
+
+        int created = toInsert.isEmpty() ? 0 : userCourseRepository.insertAllIgnoringExisting(courseId, toInsert);
+
+        return new SubscriptionBatchResultDTO(courseId, requested.size(), created, toInsert.size() - created, notFound);
     }
 }
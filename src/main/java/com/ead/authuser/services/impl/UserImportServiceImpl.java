@@ -0,0 +1,473 @@
+package com.ead.authuser.services.impl;
+
+import com.ead.authuser.DTOs.ImportJobDTO;
+import com.ead.authuser.DTOs.SignupResultDTO;
+import com.ead.authuser.DTOs.UserDTO;
+import com.ead.authuser.enums.ImportFormat;
+import com.ead.authuser.enums.ImportStatus;
+import com.ead.authuser.enums.SignupStatus;
+import com.ead.authuser.models.UserImportJobModel;
+import com.ead.authuser.repositories.UserImportJobRepository;
+import com.ead.authuser.services.UserImportService;
+import com.ead.authuser.services.UserRegistrationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Log4j2
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final ImportRow END_OF_FILE = new ImportRow(-1, null, null);
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ThreadPoolTaskExecutor userImportExecutor;
+
+    @Autowired
+    private UserImportJobRepository userImportJobRepository;
+
+    @Value("${ead.auth.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${ead.auth.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    @Value("${ead.auth.import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${ead.auth.import.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${ead.auth.import.stale-minutes:10}")
+    private long staleMinutes;
+
+    private Semaphore runningJobs;
+
+    @PostConstruct
+    public void init() {
+        runningJobs = new Semaphore(maxConcurrentJobs);
+    }
+
+    @Override
+    public ImportJobDTO startImport(MultipartFile file, ImportFormat format) throws IOException {
+        if (!runningJobs.tryAcquire()) {
+            throw new RejectedExecutionException("Too many imports running");
+        }
+
+        Path upload;
+        try {
+            // the multipart part is deleted once the request ends, so the job reads its own copy from disk
+            upload = Files.createTempFile("user-import-", "." + format.name().toLowerCase());
+            file.transferTo(upload);
+        } catch (IOException | RuntimeException exception) {
+            runningJobs.release();
+            throw exception;
+        }
+
+        var job = new ImportJobDTO();
+        job.setJobId(UUID.randomUUID());
+        job.setFileName(file.getOriginalFilename());
+        job.setFormat(format);
+        job.setStatus(ImportStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now(ZoneId.of("UTC-3")));
+
+        try {
+            store(job);
+        } catch (RuntimeException exception) {
+            Files.deleteIfExists(upload);
+            runningJobs.release();
+            throw exception;
+        }
+
+        BlockingQueue<ImportRow> queue = new ArrayBlockingQueue<>(chunkSize * 2);
+        // set when the persister stops consuming, so the parser never blocks on a queue nobody drains
+        AtomicBoolean persisterStopped = new AtomicBoolean(false);
+
+        try {
+            userImportExecutor.execute(() -> persist(job, upload, queue, persisterStopped));
+            userImportExecutor.execute(() -> parse(job, upload, format, queue, persisterStopped));
+        } catch (RuntimeException exception) {
+            queue.offer(END_OF_FILE);
+            finish(job, upload, ImportStatus.FAILED, exception.getMessage());
+            throw exception;
+        }
+
+        log.info("User import {} started for file {}", job.getJobId(), job.getFileName());
+
+        return snapshot(job);
+    }
+
+    // read from the table, so any instance behind the load balancer can report a job another one is running
+    @Override
+    public Optional<ImportJobDTO> findJob(UUID jobId) {
+        return userImportJobRepository.findById(jobId).map(this::toImportJobDTO);
+    }
+
+    // a job whose instance died stops updating its row, it would otherwise be reported as running forever
+    @Scheduled(fixedDelayString = "${ead.auth.import.cleanup-fixed-delay-ms:60000}")
+    public void cleanUpJobs() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC-3"));
+
+        int abandoned = userImportJobRepository.failRunningNotUpdatedSince(now.minusMinutes(staleMinutes), now,
+                "Import interrupted, the instance running it stopped");
+        int expired = userImportJobRepository.deleteFinishedBefore(now.minusMinutes(retentionMinutes));
+
+        if (abandoned > 0 || expired > 0) {
+            log.info("User import cleanup marked {} abandoned jobs as failed and removed {} expired jobs",
+                    abandoned, expired);
+        }
+    }
+
+    private void parse(ImportJobDTO job, Path upload, ImportFormat format,
+                       BlockingQueue<ImportRow> queue, AtomicBoolean persisterStopped) {
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            if (format == ImportFormat.CSV) {
+                parseCsv(reader, queue, persisterStopped);
+            } else {
+                parseNdjson(reader, queue, persisterStopped);
+            }
+        } catch (IOException | RuntimeException exception) {
+            log.error("User import {} failed while reading the file", job.getJobId(), exception);
+            synchronized (job) {
+                job.setFailureMessage("Error reading file: " + exception.getMessage());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            synchronized (job) {
+                job.setFailureMessage("Import interrupted");
+            }
+        }
+
+        try {
+            enqueue(queue, END_OF_FILE, persisterStopped);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void parseNdjson(BufferedReader reader, BlockingQueue<ImportRow> queue, AtomicBoolean persisterStopped)
+            throws IOException, InterruptedException {
+        ObjectReader userReader = objectMapper.readerWithView(UserDTO.UserView.RegistrationPost.class)
+                .forType(UserDTO.class);
+        long rowNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null && !persisterStopped.get()) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                enqueue(queue, new ImportRow(rowNumber, userReader.readValue(line), null), persisterStopped);
+            } catch (JsonProcessingException exception) {
+                enqueue(queue, new ImportRow(rowNumber, null, "Malformed JSON: " + exception.getOriginalMessage()),
+                        persisterStopped);
+            }
+        }
+    }
+
+    private void parseCsv(BufferedReader reader, BlockingQueue<ImportRow> queue, AtomicBoolean persisterStopped)
+            throws IOException, InterruptedException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+
+        List<String> header = splitCsvLine(headerLine);
+        long rowNumber = 1;
+        String line;
+
+        while ((line = reader.readLine()) != null && !persisterStopped.get()) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            List<String> values;
+            try {
+                values = splitCsvLine(line);
+            } catch (IllegalArgumentException exception) {
+                enqueue(queue, new ImportRow(rowNumber, null, exception.getMessage()), persisterStopped);
+                continue;
+            }
+
+            if (values.size() != header.size()) {
+                enqueue(queue, new ImportRow(rowNumber, null,
+                        "Expected " + header.size() + " columns but found " + values.size()), persisterStopped);
+                continue;
+            }
+
+            var userDTO = new UserDTO();
+            for (int i = 0; i < header.size(); i++) {
+                String value = values.get(i).isEmpty() ? null : values.get(i);
+                switch (header.get(i).trim()) {
+                    case "username": userDTO.setUsername(value); break;
+                    case "email": userDTO.setEmail(value); break;
+                    case "password": userDTO.setPassword(value); break;
+                    case "fullName": userDTO.setFullName(value); break;
+                    case "phoneNumber": userDTO.setPhoneNumber(value); break;
+                    case "cpf": userDTO.setCpf(value); break;
+                    default: break;
+                }
+            }
+            enqueue(queue, new ImportRow(rowNumber, userDTO, null), persisterStopped);
+        }
+    }
+
+    private void persist(ImportJobDTO job, Path upload, BlockingQueue<ImportRow> queue,
+                         AtomicBoolean persisterStopped) {
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try {
+            while (true) {
+                ImportRow row = queue.take();
+                if (row == END_OF_FILE) {
+                    break;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            writeChunk(job, chunk);
+
+            String failureMessage;
+            synchronized (job) {
+                failureMessage = job.getFailureMessage();
+            }
+            finish(job, upload, failureMessage == null ? ImportStatus.COMPLETED : ImportStatus.FAILED, failureMessage);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            persisterStopped.set(true);
+            finish(job, upload, ImportStatus.FAILED, "Import interrupted");
+        } catch (RuntimeException exception) {
+            log.error("User import {} failed while writing users", job.getJobId(), exception);
+            persisterStopped.set(true);
+            finish(job, upload, ImportStatus.FAILED, "Error writing users: " + exception.getMessage());
+        }
+    }
+
+    private void writeChunk(ImportJobDTO job, List<ImportRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> parsedRows = new ArrayList<>(chunk.size());
+        List<SignupResultDTO> results = new ArrayList<>(chunk.size());
+
+        for (ImportRow row : chunk) {
+            if (row.getError() != null) {
+                results.add(new SignupResultDTO((int) row.getRowNumber(), null, SignupStatus.INVALID,
+                        row.getError(), null));
+            } else {
+                parsedRows.add(row);
+            }
+        }
+
+        if (!parsedRows.isEmpty()) {
+            List<UserDTO> userDTOs = new ArrayList<>(parsedRows.size());
+            for (ImportRow row : parsedRows) {
+                userDTOs.add(row.getUserDTO());
+            }
+
+            // the import's own thread waits, the next chunk only starts once this one is stored
+            List<SignupResultDTO> chunkResults = join(userRegistrationService.registerAll(userDTOs));
+            for (int i = 0; i < chunkResults.size(); i++) {
+                SignupResultDTO result = chunkResults.get(i);
+                result.setIndex((int) parsedRows.get(i).getRowNumber());
+                results.add(result);
+            }
+        }
+
+        results.sort(Comparator.comparingInt(SignupResultDTO::getIndex));
+
+        synchronized (job) {
+            for (SignupResultDTO result : results) {
+                job.setProcessed(job.getProcessed() + 1);
+
+                if (result.getStatus() == SignupStatus.CREATED) {
+                    job.setCreated(job.getCreated() + 1);
+                    continue;
+                }
+
+                if (result.getStatus() == SignupStatus.CONFLICT) {
+                    job.setConflicts(job.getConflicts() + 1);
+                } else {
+                    job.setInvalid(job.getInvalid() + 1);
+                }
+
+                if (job.getErrors().size() < maxReportedErrors) {
+                    job.getErrors().add(result);
+                }
+            }
+        }
+
+        store(job);
+    }
+
+    private void finish(ImportJobDTO job, Path upload, ImportStatus status, String failureMessage) {
+        synchronized (job) {
+            if (job.getStatus() != ImportStatus.RUNNING) {
+                return;
+            }
+            job.setStatus(status);
+            job.setFailureMessage(failureMessage);
+            job.setFinishedAt(LocalDateTime.now(ZoneId.of("UTC-3")));
+        }
+
+        try {
+            store(job);
+        } catch (RuntimeException exception) {
+            // the row stays RUNNING and is failed by cleanUpJobs once it goes stale
+            log.error("Could not store the final status of user import {}", job.getJobId(), exception);
+        }
+
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException exception) {
+            log.warn("Could not delete import file {}", upload, exception);
+        }
+
+        runningJobs.release();
+
+        log.info("User import {} finished with status {}", job.getJobId(), status);
+    }
+
+    private ImportJobDTO snapshot(ImportJobDTO job) {
+        var copy = new ImportJobDTO();
+        synchronized (job) {
+            BeanUtils.copyProperties(job, copy, "errors");
+            copy.setErrors(new ArrayList<>(job.getErrors()));
+        }
+        return copy;
+    }
+
+    // written after every chunk, the row also serves as the heartbeat cleanUpJobs checks
+    private void store(ImportJobDTO job) {
+        ImportJobDTO snapshot = snapshot(job);
+        var userImportJobModel = new UserImportJobModel();
+        BeanUtils.copyProperties(snapshot, userImportJobModel, "errors");
+        userImportJobModel.setFailureMessage(snapshot.getFailureMessage() == null ? null
+                : snapshot.getFailureMessage().substring(0, Math.min(500, snapshot.getFailureMessage().length())));
+        userImportJobModel.setLastUpdateDate(LocalDateTime.now(ZoneId.of("UTC-3")));
+
+        try {
+            userImportJobModel.setErrors(objectMapper.writeValueAsString(snapshot.getErrors()));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize import errors", exception);
+        }
+
+        userImportJobRepository.save(userImportJobModel);
+    }
+
+    private ImportJobDTO toImportJobDTO(UserImportJobModel userImportJobModel) {
+        var importJobDTO = new ImportJobDTO();
+        BeanUtils.copyProperties(userImportJobModel, importJobDTO, "errors");
+
+        if (userImportJobModel.getErrors() != null) {
+            try {
+                importJobDTO.setErrors(objectMapper.readValue(userImportJobModel.getErrors(),
+                        new TypeReference<List<SignupResultDTO>>() {}));
+            } catch (JsonProcessingException exception) {
+                throw new IllegalStateException("Could not read import errors", exception);
+            }
+        }
+        return importJobDTO;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    private static void enqueue(BlockingQueue<ImportRow> queue, ImportRow row, AtomicBoolean persisterStopped)
+            throws InterruptedException {
+        // bounded queue: the parser waits for the persister instead of buffering the whole file
+        while (!queue.offer(row, 1, TimeUnit.SECONDS)) {
+            if (persisterStopped.get()) {
+                return;
+            }
+        }
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may hold commas and "" for a quote, but no line breaks
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+
+        return values;
+    }
+
+    @lombok.Value
+    private static class ImportRow {
+        long rowNumber;
+        UserDTO userDTO;
+        String error;
+    }
+}
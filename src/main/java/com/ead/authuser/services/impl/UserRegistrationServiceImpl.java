@@ -0,0 +1,180 @@
+package com.ead.authuser.services.impl;
+
+import com.ead.authuser.DTOs.SignupResultDTO;
+import com.ead.authuser.DTOs.UserDTO;
+import com.ead.authuser.enums.SignupStatus;
+import com.ead.authuser.enums.UserStatus;
+import com.ead.authuser.enums.UserType;
+import com.ead.authuser.models.UserModel;
+import com.ead.authuser.projections.UserIdentityProjection;
+import com.ead.authuser.repositories.UserRepository;
+import com.ead.authuser.services.PasswordService;
+import com.ead.authuser.services.UserRegistrationService;
+import com.ead.authuser.services.UserService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+@Log4j2
+@Service
+public class UserRegistrationServiceImpl implements UserRegistrationService {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ThreadPoolTaskExecutor userWriteExecutor;
+
+    @Override
+    public CompletableFuture<List<SignupResultDTO>> registerAll(List<UserDTO> userDTOs) {
+        SignupResultDTO[] results = new SignupResultDTO[userDTOs.size()];
+        Map<Integer, UserDTO> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < userDTOs.size(); i++) {
+            UserDTO userDTO = userDTOs.get(i);
+            Set<ConstraintViolation<UserDTO>> violations =
+                    validator.validate(userDTO, UserDTO.UserView.RegistrationPost.class);
+
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                results[i] = new SignupResultDTO(i, userDTO.getUsername(), SignupStatus.INVALID, message, null);
+            } else {
+                candidates.put(i, userDTO);
+            }
+        }
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+
+        if (!candidates.isEmpty()) {
+            Set<String> usernames = candidates.values().stream().map(UserDTO::getUsername).collect(Collectors.toSet());
+            Set<String> emails = candidates.values().stream().map(UserDTO::getEmail).collect(Collectors.toSet());
+
+            for (UserIdentityProjection identity : userRepository.findIdentitiesByUsernameInOrEmailIn(usernames, emails)) {
+                takenUsernames.add(identity.getUsername());
+                takenEmails.add(identity.getEmail());
+            }
+        }
+
+        Map<Integer, UserModel> userModels = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC-3"));
+
+        for (Map.Entry<Integer, UserDTO> candidate : candidates.entrySet()) {
+            int index = candidate.getKey();
+            UserDTO userDTO = candidate.getValue();
+
+            if (takenUsernames.contains(userDTO.getUsername())) {
+                results[index] = new SignupResultDTO(index, userDTO.getUsername(), SignupStatus.CONFLICT,
+                        "Error: Username is Already Taken!", null);
+            } else if (takenEmails.contains(userDTO.getEmail())) {
+                results[index] = new SignupResultDTO(index, userDTO.getUsername(), SignupStatus.CONFLICT,
+                        "Error: Email is Already Taken!", null);
+            } else {
+                // later rows repeating this username or email within the same batch are conflicts too
+                takenUsernames.add(userDTO.getUsername());
+                takenEmails.add(userDTO.getEmail());
+
+                var userModel = new UserModel();
+                BeanUtils.copyProperties(userDTO, userModel);
+                userModel.setUserStatus(UserStatus.ACTIVE);
+                userModel.setUserType(UserType.STUDENT);
+                userModel.setCreationDate(now);
+                userModel.setLastUpdateDate(now);
+                userModels.put(index, userModel);
+            }
+        }
+
+        if (userModels.isEmpty()) {
+            return CompletableFuture.completedFuture(complete(userDTOs.size(), userModels, results));
+        }
+
+        List<UserModel> toSave = new ArrayList<>(userModels.values());
+
+        // hashed on the bulk pool and saved on the write pool, the caller's thread is released meanwhile
+        return passwordService.hashAll(toSave.stream().map(UserModel::getPassword).collect(Collectors.toList()))
+                .thenApplyAsync(hashes -> {
+                    for (int i = 0; i < toSave.size(); i++) {
+                        toSave.get(i).setPassword(hashes.get(i));
+                    }
+
+                    try {
+                        userService.saveAll(toSave);
+                    } catch (DataIntegrityViolationException exception) {
+                        log.warn("Batch signup conflicted with a concurrent registration, inserting row by row");
+                        saveOneByOne(userModels, results);
+                    }
+
+                    return complete(userDTOs.size(), userModels, results);
+                }, userWriteExecutor);
+    }
+
+    private static List<SignupResultDTO> complete(int size, Map<Integer, UserModel> userModels,
+                                                  SignupResultDTO[] results) {
+        int created = 0;
+        for (Map.Entry<Integer, UserModel> saved : userModels.entrySet()) {
+            if (results[saved.getKey()] == null) {
+                results[saved.getKey()] = new SignupResultDTO(saved.getKey(), saved.getValue().getUsername(),
+                        SignupStatus.CREATED, null, saved.getValue().getUserId());
+                created++;
+            }
+        }
+
+        log.info("Batch signup processed {} users, {} created", size, created);
+
+        return Arrays.asList(results);
+    }
+
+    private void saveOneByOne(Map<Integer, UserModel> userModels, SignupResultDTO[] results) {
+        for (Map.Entry<Integer, UserModel> entry : userModels.entrySet()) {
+            UserModel userModel = entry.getValue();
+            // the rolled back batch already assigned ids and versions, persist would reject them as detached
+            userModel.setUserId(null);
+            userModel.setVersion(null);
+
+            try {
+                userService.save(userModel);
+            } catch (DataIntegrityViolationException exception) {
+                results[entry.getKey()] = rejected(entry.getKey(), userModel, exception);
+            }
+        }
+    }
+
+    // a unique violation is a conflict, anything else the database refused (e.g. a value too long) is an invalid row
+    private static SignupResultDTO rejected(int index, UserModel userModel, DataIntegrityViolationException exception) {
+        Throwable cause = exception.getMostSpecificCause();
+
+        if (cause instanceof SQLException && UNIQUE_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+            return new SignupResultDTO(index, userModel.getUsername(), SignupStatus.CONFLICT,
+                    "Error: Username or Email is Already Taken!", null);
+        }
+        // only the first line, Postgres adds a "Failing row contains" detail that would echo the password hash
+        String message = String.valueOf(cause.getMessage()).lines().findFirst().orElse("");
+        return new SignupResultDTO(index, userModel.getUsername(), SignupStatus.INVALID, "Error: " + message, null);
+    }
+}
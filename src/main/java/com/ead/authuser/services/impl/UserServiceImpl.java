@@ -1,22 +1,53 @@
 package com.ead.authuser.services.impl;
 
+import com.ead.authuser.DTOs.UserCursorDTO;
+import com.ead.authuser.DTOs.UserFilterDTO;
+import com.ead.authuser.DTOs.UserPatchDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
 import com.ead.authuser.clients.CourseClient;
-import com.ead.authuser.models.UserCourseModel;
+import com.ead.authuser.components.TokenRevocationList;
+import com.ead.authuser.components.UserAvailabilityIndex;
+import com.ead.authuser.components.UserCache;
 import com.ead.authuser.models.UserModel;
 import com.ead.authuser.repositories.UserCourseRepository;
 import com.ead.authuser.repositories.UserRepository;
+import com.ead.authuser.services.CourseNotificationService;
+import com.ead.authuser.services.PasswordService;
 import com.ead.authuser.services.UserService;
+import com.ead.authuser.specifications.SpecificationTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+@Log4j2
 @Service
 public class UserServiceImpl implements UserService {
 
@@ -29,6 +60,47 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private CourseClient courseClient;
 
+    @Autowired
+    private CourseNotificationService courseNotificationService;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor userWriteExecutor;
+
+    @Autowired
+    private UserAvailabilityIndex userAvailabilityIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${ead.users.count-estimate.ttl-ms:30000}")
+    private long countEstimateTtlMs;
+
+    @Value("${ead.users.count-estimate.max-entries:1000}")
+    private int countEstimateMaxEntries;
+
+    private Cache<String, Long> countEstimates;
+
+    @PostConstruct
+    public void init() {
+        countEstimates = Caffeine.newBuilder()
+                .maximumSize(countEstimateMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(countEstimateTtlMs))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public List<UserModel> findAll() {
         return userRepository.findAll();
@@ -36,46 +108,208 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Optional<UserModel> findById(UUID userId) {
-        return userRepository.findById(userId);
+        // cache fills read the primary, a lagging replica row would otherwise be served until the TTL
+        return userCache.get(userId, id -> transactionTemplate.execute(status -> userRepository.findById(id)));
     }
 
     @Transactional
     @Override
     public void delete(UserModel userModel) {
-        boolean deleteUserCourseInCourse = false;
-
-        List<UserCourseModel> userCourseModelList = userCourseRepository
-                .findAllUserCourseIntoUser(userModel.getUserId());
-
-        if (!userCourseModelList.isEmpty()) {
-            userCourseRepository.deleteAll(userCourseModelList);
-            deleteUserCourseInCourse = true;
-        }
+        boolean deleteUserCourseInCourse = userCourseRepository.deleteAllByUserId(userModel.getUserId()) > 0;
 
         userRepository.delete(userModel);
+        userCache.invalidate(userModel.getUserId());
+        tokenRevocationList.revoke(userModel.getUserId());
 
         if (deleteUserCourseInCourse) {
-            courseClient.deleteUserInCourse(userModel.getUserId());
+            // delivered by CourseNotificationDispatcher after commit, no HTTP call while holding the transaction
+            courseNotificationService.enqueueUserDeleted(userModel.getUserId());
+            courseClient.evictCoursesByUser(userModel.getUserId());
         }
     }
 
     @Override
     public void save(UserModel userModel) {
-        userRepository.save(userModel);
+        // a detached userModel is merged into another instance, copy the bumped version back for the caller
+        userModel.setVersion(userRepository.save(userModel).getVersion());
+        userCache.invalidate(userModel.getUserId());
+        userAvailabilityIndex.add(userModel.getUsername(), userModel.getEmail());
+    }
+
+    @Transactional
+    @Override
+    public void saveAll(List<UserModel> userModels) {
+        userRepository.saveAll(userModels);
+
+        for (UserModel userModel : userModels) {
+            userAvailabilityIndex.add(userModel.getUsername(), userModel.getEmail());
+        }
     }
 
+    @Transactional(readOnly = true)
     @Override
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
+    // a negative from the index may miss a user created on another instance since its last refresh
+    @Transactional(readOnly = true)
+    @Override
+    public boolean probablyExistsByUsername(String username) {
+        return userAvailabilityIndex.mightContainUsername(username) && userRepository.existsByUsername(username);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public boolean probablyExistsByEmail(String email) {
+        return userAvailabilityIndex.mightContainEmail(email) && userRepository.existsByEmail(email);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Page<UserSummaryDTO> findAllSummaries(Specification<UserModel> spec, Pageable pageable) {
+        return userRepository.findAllSummaries(spec, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<UserSummaryDTO> findAllSummariesSlice(Specification<UserModel> spec, Pageable pageable) {
+        return userRepository.findAllSummariesSlice(spec, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long estimateCount(UserFilterDTO filter, UUID courseId) {
+        return countEstimates.get(filterShape(filter, courseId), key -> userRepository.estimateCount(filter, courseId));
+    }
+
+    // free-text filters only count by presence, the enum filters keep their value since their selectivity differs a lot
+    private static String filterShape(UserFilterDTO filter, UUID courseId) {
+        return String.join("|",
+                filter.getUserType() == null ? "" : filter.getUserType().toUpperCase(Locale.ROOT),
+                filter.getUserStatus() == null ? "" : filter.getUserStatus().toUpperCase(Locale.ROOT),
+                filter.getEmail() == null ? "" : "email",
+                filter.getFullName() == null ? "" : "fullName",
+                courseId == null ? "" : "courseId");
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<UserSummaryDTO> findAllByCursor(Specification<UserModel> spec, UserCursorDTO after, int size) {
+        Specification<UserModel> keysetSpec = Specification.where(spec);
+
+        if (after != null) {
+            keysetSpec = keysetSpec.and(SpecificationTemplate.userAfterCursor(after));
+        }
+
+        Sort keysetSort = Sort.by(Sort.Direction.ASC, "creationDate", "userId");
+
+        return userRepository.findAllSummariesSlice(keysetSpec, PageRequest.of(0, size, keysetSort));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportAll(Specification<UserModel> spec, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(UserModel.class);
+
+        try (Stream<UserModel> users = userRepository.streamAll(spec, Sort.by(Sort.Direction.ASC, "userId"))) {
+            Iterator<UserModel> iterator = users.iterator();
+
+            while (iterator.hasNext()) {
+                UserModel userModel = iterator.next();
+                outputStream.write(writer.writeValueAsBytes(userModel));
+                outputStream.write('\n');
+                // keeps the persistence context from growing with every exported row
+                userRepository.detach(userModel);
+            }
+        }
+        outputStream.flush();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public boolean existsById(UUID userId) {
+        return userRepository.existsById(userId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Long> findVersionById(UUID userId) {
+        Optional<Long> cached = userCache.getVersionIfPresent(userId);
+
+        return cached.isPresent() ? cached : userRepository.findVersionById(userId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserSummaryDTO> search(String term, int limit) {
+        return userRepository.search(term, limit);
+    }
+
+    @Transactional
+    @Override
+    public Optional<UserModel> patch(UUID userId, UserPatchDTO patch) {
+        Optional<UserModel> userModelOptional = userRepository.patch(userId, patch,
+                LocalDateTime.now(ZoneId.of("UTC-3")));
+
+        if (userModelOptional.isPresent()) {
+            userCache.invalidate(userId);
+        }
+
+        return userModelOptional;
+    }
+
+    @Transactional
     @Override
-    public Page<UserModel> findAll(Specification<UserModel> spec, Pageable pageable) {
-        return userRepository.findAll(spec, pageable);
+    public boolean updatePassword(UUID userId, String oldPassword, String password, Long version) {
+        boolean updated = userRepository.updatePassword(userId, oldPassword, password, version,
+                LocalDateTime.now(ZoneId.of("UTC-3"))) > 0;
+
+        if (updated) {
+            userCache.invalidate(userId);
+        }
+
+        return updated;
+    }
+
+    @Override
+    public Optional<String> findPasswordById(UUID userId) {
+        return userRepository.findPasswordById(userId);
+    }
+
+    @Override
+    public Optional<UserModel> findByUsername(String username) {
+        return userRepository.findByUsername(username);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkPassword(UserModel userModel, String rawPassword) {
+        String storedPassword = userModel.getPassword();
+
+        return passwordService.verify(rawPassword, storedPassword).thenCompose(check -> {
+            if (!check.isNeedsRehash()) {
+                return CompletableFuture.completedFuture(check.isMatches());
+            }
+
+            // legacy plain text or a lower cost than configured, upgrade while the raw password is at hand
+            return passwordService.hash(rawPassword)
+                    .thenApplyAsync(hash -> {
+                        if (transactionTemplate.execute(status -> userRepository.rehashPassword(
+                                userModel.getUserId(), storedPassword, hash)) > 0) {
+                            userCache.invalidate(userModel.getUserId());
+                        }
+                        return true;
+                    }, userWriteExecutor)
+                    .exceptionally(exception -> {
+                        log.warn("Password rehash failed userId {} ", userModel.getUserId(), exception);
+                        return true;
+                    });
+        });
     }
 }
@@ -1,17 +1,124 @@
 package com.ead.authuser.services.impl;
 
+import com.ead.authuser.DTOs.UserCursorDTO;
+import com.ead.authuser.DTOs.UserSummaryDTO;
 import com.ead.authuser.services.UtilsService;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.UUID;
 
 @Service
 public class UtilsServiceImpl implements UtilsService {
 
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private static final String WEAK_PREFIX = "W/";
+
     public String createUrlGetAllCoursesByUser(UUID userId, Pageable pageable) {
         return "/courses?userId=" + userId + "&page=" + pageable.getPageNumber() +
                 "&size=" + pageable.getPageSize() + "&sort=" + pageable
-                .getSort().toString().replaceAll(": ", ",");
+                .getSort().toString().replace(": ", ",");
+    }
+
+    @Override
+    public String encodeUserCursor(UserCursorDTO cursor) {
+        String raw = cursor.getCreationDate() + CURSOR_SEPARATOR + cursor.getUserId();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public UserCursorDTO decodeUserCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+
+            return new UserCursorDTO(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException exception) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, exception);
+        }
+    }
+
+    @Override
+    public String userETag(UUID userId, Long version) {
+        return "\"" + userId + "-" + version + "\"";
+    }
+
+    @Override
+    public String usersETag(Slice<UserSummaryDTO> users) {
+        var raw = new StringBuilder()
+                .append(users.getNumber()).append(CURSOR_SEPARATOR)
+                .append(users.getSize()).append(CURSOR_SEPARATOR)
+                .append(users.hasNext());
+
+        if (users instanceof Page) {
+            raw.append(CURSOR_SEPARATOR).append(((Page<UserSummaryDTO>) users).getTotalElements());
+        }
+
+        for (UserSummaryDTO user : users) {
+            raw.append(CURSOR_SEPARATOR).append(user.getUserId()).append('-').append(user.getVersion());
+        }
+
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(raw.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    @Override
+    public Long versionFromETag(UUID userId, String eTag) {
+        String prefix = "\"" + userId + "-";
+
+        if (eTag == null || !eTag.startsWith(prefix) || !eTag.endsWith("\"")) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(eTag.substring(prefix.length(), eTag.length() - 1));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        // If-None-Match uses the weak comparison, W/ prefixes are ignored on both sides
+        String opaqueTag = stripWeakPrefix(eTag);
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+
+            if (candidate.equals("*") || stripWeakPrefix(candidate).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean matchesIfMatch(String ifMatch, String eTag) {
+        // If-Match uses the strong comparison, weak tags never match
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+
+            if (candidate.equals("*") || !eTag.startsWith(WEAK_PREFIX) && candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String stripWeakPrefix(String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
     }
 }
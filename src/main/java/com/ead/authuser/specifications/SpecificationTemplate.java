@@ -1,5 +1,6 @@
 package com.ead.authuser.specifications;
 
+import com.ead.authuser.DTOs.UserCursorDTO;
 import com.ead.authuser.models.UserCourseModel;
 import com.ead.authuser.models.UserModel;
 import net.kaczmarzyk.spring.data.jpa.domain.EqualIgnoreCase;
@@ -8,7 +9,9 @@ import net.kaczmarzyk.spring.data.jpa.web.annotation.And;
 import net.kaczmarzyk.spring.data.jpa.web.annotation.Spec;
 import org.springframework.data.jpa.domain.Specification;
 
-import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class SpecificationTemplate {
@@ -23,9 +26,22 @@ public class SpecificationTemplate {
 
     public static Specification<UserModel> userCourseId(final UUID courseId) {
         return (root, query, cb) -> {
-            query.distinct(true);
-            Join<UserModel, UserCourseModel> userProd = root.join("usersCourses");
-            return cb.equal(userProd.get("courseId"), courseId);
+            // a semi-join keeps one row per user, so neither the page nor the count query needs DISTINCT
+            Subquery<UUID> subquery = query.subquery(UUID.class);
+            Root<UserCourseModel> userCourse = subquery.from(UserCourseModel.class);
+            subquery.select(userCourse.get("id"))
+                    .where(cb.equal(userCourse.get("user"), root), cb.equal(userCourse.get("courseId"), courseId));
+            return cb.exists(subquery);
         };
     }
+
+    public static Specification<UserModel> userAfterCursor(final UserCursorDTO cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.<LocalDateTime>get("creationDate"), cursor.getCreationDate()),
+                cb.and(
+                        cb.equal(root.get("creationDate"), cursor.getCreationDate()),
+                        cb.greaterThan(root.<UUID>get("userId"), cursor.getUserId())
+                )
+        );
+    }
 }
@@ -0,0 +1,9 @@
+-- Run once, as the database owner, on databases that still hold passwords written before hashing was introduced.
+-- Afterwards ead.password.legacy-plaintext.enabled can stay false and plain text is never compared again.
+-- pgcrypto's bf salts produce $2a$ hashes that BCryptPasswordEncoder verifies, cost 10 matches ead.password.bcrypt.cost.
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+UPDATE users
+SET password = crypt(password, gen_salt('bf', 10)),
+    version = version + 1
+WHERE password !~ '^\$2[aby]?\$\d\d\$[./0-9A-Za-z]{53}$';
@@ -0,0 +1,11 @@
+-- Run as the database owner (or a superuser) before deploying the trigram user search, and again whenever the
+-- indexes are missing. Outside a transaction block: psql -f db/owner/search-indexes.sql
+-- The application role may not create extensions, and a plain CREATE INDEX would block writes to users while it
+-- builds, so none of this runs at application startup.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- a build that failed halfway leaves an INVALID index that IF NOT EXISTS skips, drop it first:
+-- SELECT indexrelid::regclass FROM pg_index WHERE NOT indisvalid AND indrelid = 'users'::regclass;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm ON users USING gin (upper(username) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING gin (upper(email) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (upper(full_name) gin_trgm_ops);
@@ -0,0 +1,18 @@
+-- Run once, before upgrading, on databases whose users_courses table predates uk_users_courses_course_id_user_id.
+-- Hibernate cannot add the constraint while duplicate subscriptions exist, and the application refuses to start
+-- without it because subscriptions are inserted with ON CONFLICT (course_id, user_user_id).
+BEGIN;
+
+LOCK TABLE users_courses IN SHARE ROW EXCLUSIVE MODE;
+
+-- duplicates carry no data besides their id, keep one row per (course_id, user_user_id)
+DELETE FROM users_courses duplicate
+USING users_courses kept
+WHERE duplicate.course_id = kept.course_id
+  AND duplicate.user_user_id = kept.user_user_id
+  AND duplicate.id > kept.id;
+
+ALTER TABLE users_courses DROP CONSTRAINT IF EXISTS uk_users_courses_course_id_user_id;
+ALTER TABLE users_courses ADD CONSTRAINT uk_users_courses_course_id_user_id UNIQUE (course_id, user_user_id);
+
+COMMIT;
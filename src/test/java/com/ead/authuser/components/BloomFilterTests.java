@@ -0,0 +1,61 @@
+package com.ead.authuser.components;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+    private static final int EXPECTED_INSERTIONS = 100_000;
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            filter.put("user" + i + "@ead.com");
+        }
+
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            assertThat(filter.mightContain("user" + i + "@ead.com")).as("user%d@ead.com", i).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositiveRateNearConfiguredProbabilityAtExpectedSize() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            filter.put("taken" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("free" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(FALSE_POSITIVE_PROBABILITY * 1.5);
+    }
+
+    @Test
+    void sizesBitsAndHashFunctionsForTheRequestedProbability() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+
+        // m = -n ln p / (ln 2)^2 and k = m / n ln 2
+        assertThat(filter.getBitSize()).isBetween(958_000L, 959_000L);
+        assertThat(filter.getHashFunctions()).isEqualTo(7);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+
+        assertThat(filter.mightContain("anyone")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ead.authuser.configs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrimaryPinTaskDecoratorTests {
+
+    private final ThreadPoolTaskExecutor executor = executor();
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+        executor.shutdown();
+    }
+
+    @Test
+    void carriesPinIntoTask() {
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertThat(CompletableFuture.supplyAsync(ReplicaRoutingDataSource::isPinnedToPrimary, executor).join()).isTrue();
+    }
+
+    @Test
+    void carriesPinAlongAsyncChain() {
+        ReplicaRoutingDataSource.pinToPrimary();
+        var firstStage = new CompletableFuture<String>();
+
+        // the second stage is submitted from the pool thread that completes the first, as in the password paths
+        CompletableFuture<Boolean> chained = firstStage
+                .thenApplyAsync(hash -> ReplicaRoutingDataSource.isPinnedToPrimary(), executor);
+        CompletableFuture<Void> completing = CompletableFuture.runAsync(() -> firstStage.complete("hash"), executor);
+        ReplicaRoutingDataSource.unpin();
+
+        completing.join();
+        assertThat(chained.join()).isTrue();
+    }
+
+    @Test
+    void leavesUnpinnedTasksAndPoolThreadsUnpinned() {
+        ReplicaRoutingDataSource.pinToPrimary();
+        CompletableFuture.runAsync(() -> { }, executor).join();
+        ReplicaRoutingDataSource.unpin();
+
+        assertThat(CompletableFuture.supplyAsync(ReplicaRoutingDataSource::isPinnedToPrimary, executor).join()).isFalse();
+    }
+
+    private static ThreadPoolTaskExecutor executor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setTaskDecorator(new PrimaryPinTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,163 @@
+package com.ead.authuser.controllers;
+
+import com.ead.authuser.enums.UserStatus;
+import com.ead.authuser.enums.UserType;
+import com.ead.authuser.models.UserModel;
+import com.ead.authuser.repositories.UserRepository;
+import com.ead.authuser.services.UserCourseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class UserCourseSubscriptionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private UserCourseService userCourseService;
+
+    private final UUID courseId = UUID.randomUUID();
+
+    private UUID userId;
+
+    @BeforeEach
+    void createUser() {
+        String name = "sub" + Long.toString(System.nanoTime(), 36);
+        var userModel = new UserModel();
+        userModel.setUsername(name);
+        userModel.setEmail(name + "@ead.test");
+        userModel.setPassword("$2a$10$abcdefghijklmnopqrstuuGvRSVKeQw7s7tjpPGhZGSCdmGIaSS5u");
+        userModel.setFullName("Subscription Test");
+        userModel.setUserStatus(UserStatus.ACTIVE);
+        userModel.setUserType(UserType.STUDENT);
+        userModel.setCreationDate(LocalDateTime.now(ZoneId.of("UTC-3")));
+        userModel.setLastUpdateDate(LocalDateTime.now(ZoneId.of("UTC-3")));
+        userId = userRepository.save(userModel).getUserId();
+    }
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users_courses WHERE course_id = ?", courseId);
+        jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId);
+    }
+
+    @Test
+    void subscribesOnceAndAnswersConflictForDuplicate() throws Exception {
+        subscribe(userId).andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userId").value(userId.toString()))
+                .andExpect(jsonPath("$.courseId").value(courseId.toString()));
+
+        subscribe(userId).andExpect(status().isConflict())
+                .andExpect(content().string("Error: subscription already exists!"));
+    }
+
+    @Test
+    void answersNotFoundForMissingUser() throws Exception {
+        subscribe(UUID.randomUUID()).andExpect(status().isNotFound())
+                .andExpect(content().string("User not found"));
+    }
+
+    @Test
+    void answersConflictForUniqueViolation() throws Exception {
+        doThrow(new DuplicateKeyException("duplicate", new SQLException("duplicate key", "23505")))
+                .when(userCourseService).subscribe(any(), any());
+
+        subscribe(userId).andExpect(status().isConflict());
+    }
+
+    @Test
+    void doesNotMapOtherConstraintViolations() {
+        doThrow(new DataIntegrityViolationException("check", new SQLException("check violation", "23514")))
+                .when(userCourseService).subscribe(any(), any());
+
+        assertThatThrownBy(() -> subscribe(userId)).hasRootCauseInstanceOf(SQLException.class);
+    }
+
+    @Test
+    void bulkReportsMissingAndExistingUsers() throws Exception {
+        UUID missing = UUID.randomUUID();
+
+        subscribeAll(userId, missing).andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.notFoundUserIds[0]").value(missing.toString()));
+
+        subscribeAll(userId).andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.existing").value(1));
+    }
+
+    @Test
+    void bulkRetriesOnceWhenUserIsDeletedConcurrently() throws Exception {
+        doThrow(foreignKeyViolation()).doCallRealMethod().when(userCourseService).subscribeAll(any(), any());
+
+        subscribeAll(userId).andExpect(status().isOk()).andExpect(jsonPath("$.created").value(1));
+        verify(userCourseService, times(2)).subscribeAll(any(), any());
+    }
+
+    @Test
+    void bulkGivesUpAfterRepeatedConcurrentDeletes() throws Exception {
+        doThrow(foreignKeyViolation()).when(userCourseService).subscribeAll(any(), any());
+
+        subscribeAll(userId).andExpect(status().isConflict());
+        verify(userCourseService, times(2)).subscribeAll(any(), any());
+    }
+
+    private ResultActions subscribe(UUID subscriber) throws Exception {
+        return mockMvc.perform(post("/users/{userId}/courses/subscription", subscriber)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"courseId\":\"" + courseId + "\"}"));
+    }
+
+    private ResultActions subscribeAll(UUID... subscribers) throws Exception {
+        StringBuilder userIds = new StringBuilder();
+        for (UUID subscriber : subscribers) {
+            userIds.append(userIds.length() == 0 ? "" : ",").append('"').append(subscriber).append('"');
+        }
+
+        return mockMvc.perform(post("/users/courses/subscription")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"courseId\":\"" + courseId + "\",\"userIds\":[" + userIds + "]}"));
+    }
+
+    private static DataIntegrityViolationException foreignKeyViolation() {
+        return new DataIntegrityViolationException("foreign key",
+                new SQLException("insert or update on table users_courses violates foreign key", "23503"));
+    }
+}
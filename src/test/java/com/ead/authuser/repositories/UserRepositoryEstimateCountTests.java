@@ -0,0 +1,73 @@
+package com.ead.authuser.repositories;
+
+import com.ead.authuser.DTOs.UserFilterDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@Transactional
+class UserRepositoryEstimateCountTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void analyze() {
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE users_courses");
+    }
+
+    @Test
+    void estimatesUnfilteredCountFromTableStatistics() {
+        long exact = userRepository.count();
+
+        assertThat(userRepository.estimateCount(new UserFilterDTO(), null))
+                .isCloseTo(exact, within(Math.max(10, exact / 10)));
+    }
+
+    @Test
+    void estimatesEnumFiltersCaseInsensitively() {
+        long students = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE user_type = 'STUDENT' AND user_status = 'ACTIVE'", Long.class);
+        var filter = new UserFilterDTO();
+        filter.setUserType("student");
+        filter.setUserStatus("Active");
+
+        assertThat(userRepository.estimateCount(filter, null))
+                .isCloseTo(students, within(Math.max(10, students / 10)));
+    }
+
+    @Test
+    void explainsEveryFilterTogether() {
+        var filter = new UserFilterDTO();
+        filter.setUserType("INSTRUCTOR");
+        filter.setUserStatus("BLOCKED");
+        filter.setEmail("o'brien%");
+        filter.setFullName("_");
+
+        assertThat(userRepository.estimateCount(filter, UUID.randomUUID()))
+                .isBetween(0L, userRepository.count());
+    }
+
+    @Test
+    void estimatesTextFiltersBelowTotal() {
+        var filter = new UserFilterDTO();
+        filter.setEmail("@");
+
+        assertThat(userRepository.estimateCount(filter, null)).isBetween(0L, userRepository.count() + 10);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ead.authuser.services.impl;
+
+import com.ead.authuser.DTOs.TokenClaimsDTO;
+import com.ead.authuser.components.TokenRevocationList;
+import com.ead.authuser.enums.UserStatus;
+import com.ead.authuser.enums.UserType;
+import com.ead.authuser.models.UserModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenServiceVerifyTests {
+
+    private static final String SECRET = "test-secret-0123456789-0123456789-0123456789";
+
+    private final TokenRevocationList tokenRevocationList = Mockito.mock(TokenRevocationList.class);
+
+    private final UserModel user = new UserModel();
+
+    private TokenServiceImpl tokenService;
+
+    @BeforeEach
+    void setUp() {
+        user.setUserId(UUID.randomUUID());
+        user.setUserType(UserType.STUDENT);
+        user.setUserStatus(UserStatus.ACTIVE);
+
+        tokenService = tokenService(SECRET, 900);
+    }
+
+    @Test
+    void acceptsTokenItIssued() {
+        Optional<TokenClaimsDTO> claims = tokenService.verify(tokenService.issue(user).getAccessToken());
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getUserId()).isEqualTo(user.getUserId());
+        assertThat(claims.get().getUserType()).isEqualTo(UserType.STUDENT);
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String[] parts = tokenService.issue(user).getAccessToken().split("\\.");
+        byte[] signature = Base64.getUrlDecoder().decode(parts[2]);
+        signature[0] ^= 1;
+
+        assertThat(tokenService.verify(parts[0] + "." + parts[1] + "." + base64(signature))).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedClaims() {
+        String[] parts = tokenService.issue(user).getAccessToken().split("\\.");
+        String claims = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("STUDENT", "ADMIN");
+
+        assertThat(tokenService.verify(parts[0] + "." + base64(claims) + "." + parts[2])).isEmpty();
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherSecret() {
+        String foreign = tokenService("another-secret-0123456789-0123456789-01234", 900).issue(user).getAccessToken();
+
+        assertThat(tokenService.verify(foreign)).isEmpty();
+    }
+
+    @Test
+    void rejectsAlgNone() {
+        String[] parts = tokenService.issue(user).getAccessToken().split("\\.");
+        String none = base64("{\"alg\":\"none\",\"typ\":\"JWT\"}");
+
+        assertThat(tokenService.verify(none + "." + parts[1] + ".")).isEmpty();
+        assertThat(tokenService.verify(none + "." + parts[1] + "." + parts[2])).isEmpty();
+    }
+
+    @Test
+    void rejectsOtherHeaderEvenWithValidSignature() {
+        String[] parts = tokenService.issue(user).getAccessToken().split("\\.");
+        String header = base64("{\"typ\":\"JWT\",\"alg\":\"HS256\"}");
+
+        assertThat(tokenService.verify(header + "." + parts[1] + "." + parts[2])).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String expired = tokenService(SECRET, -1).issue(user).getAccessToken();
+
+        assertThat(tokenService.verify(expired)).isEmpty();
+    }
+
+    @Test
+    void rejectsRevokedUser() {
+        String token = tokenService.issue(user).getAccessToken();
+        Mockito.when(tokenRevocationList.isRevoked(user.getUserId())).thenReturn(true);
+
+        assertThat(tokenService.verify(token)).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedBase64() {
+        String[] parts = tokenService.issue(user).getAccessToken().split("\\.");
+
+        assertThat(tokenService.verify(parts[0] + "." + parts[1] + ".!!not-base64!!")).isEmpty();
+        assertThat(tokenService.verify(parts[0] + ".%%%." + parts[2])).isEmpty();
+        assertThat(tokenService.verify("%%%." + parts[1] + "." + parts[2])).isEmpty();
+    }
+
+    @Test
+    void rejectsCorrectlySignedGarbageClaims() throws Exception {
+        String header = tokenService.issue(user).getAccessToken().split("\\.")[0];
+
+        // a valid signature gets past the first check, the claims themselves must still be rejected
+        for (String claims : new String[]{"%%%", base64("not json"), base64("{\"sub\":\"not-a-uuid\",\"iss\":\"ead-authuser\"}")}) {
+            String signingInput = header + "." + claims;
+
+            assertThat(tokenService.verify(signingInput + "." + base64(hmac(signingInput)))).as(claims).isEmpty();
+        }
+    }
+
+    @Test
+    void rejectsMalformedStructure() {
+        String token = tokenService.issue(user).getAccessToken();
+
+        assertThat(tokenService.verify(null)).isEmpty();
+        assertThat(tokenService.verify("")).isEmpty();
+        assertThat(tokenService.verify(token.substring(0, token.lastIndexOf('.')))).isEmpty();
+        assertThat(tokenService.verify(token + ".extra")).isEmpty();
+    }
+
+    @Test
+    void refusesShortSecret() {
+        var shortSecret = new TokenServiceImpl();
+        ReflectionTestUtils.setField(shortSecret, "secret", "too-short");
+
+        assertThatThrownBy(shortSecret::init).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void acceptsOnlyMatchingServiceSignature() {
+        String signature = tokenService.signServiceRequest("GET", "/ead-authuser/auth/revocations");
+
+        assertThat(tokenService.verifyServiceRequest("GET", "/ead-authuser/auth/revocations", signature)).isTrue();
+        assertThat(tokenService.verifyServiceRequest("DELETE", "/ead-authuser/auth/revocations", signature)).isFalse();
+        assertThat(tokenService.verifyServiceRequest("GET", "/ead-authuser/caches/users/x", signature)).isFalse();
+        assertThat(tokenService.verifyServiceRequest("GET", "/ead-authuser/auth/revocations", null)).isFalse();
+        assertThat(tokenService.verifyServiceRequest("GET", "/ead-authuser/auth/revocations", "1.%%%")).isFalse();
+    }
+
+    private TokenServiceImpl tokenService(String secret, long ttlSeconds) {
+        var tokenService = new TokenServiceImpl();
+        ReflectionTestUtils.setField(tokenService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(tokenService, "tokenRevocationList", tokenRevocationList);
+        ReflectionTestUtils.setField(tokenService, "secret", secret);
+        ReflectionTestUtils.setField(tokenService, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(tokenService, "issuer", "ead-authuser");
+        ReflectionTestUtils.setField(tokenService, "maxClockSkewSeconds", 60L);
+        tokenService.init();
+        return tokenService;
+    }
+
+    private static byte[] hmac(String signingInput) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String base64(String value) {
+        return base64(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String base64(byte[] value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ead.authuser.services.impl;
+
+import com.ead.authuser.DTOs.UserCursorDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserCursorTests {
+
+    private final UserCursorDTO cursor = new UserCursorDTO(
+            LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000), UUID.fromString("4f1c2a5e-8d3b-4b6f-9a7e-1c2d3e4f5a6b"));
+
+    private final UtilsServiceImpl utilsService = new UtilsServiceImpl();
+
+    @Test
+    void roundTripsCreationDateAndUserId() {
+        assertThat(utilsService.decodeUserCursor(utilsService.encodeUserCursor(cursor))).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsWholeSecondCreationDates() {
+        var onTheSecond = new UserCursorDTO(LocalDateTime.of(2024, 3, 1, 10, 15), cursor.getUserId());
+
+        assertThat(utilsService.decodeUserCursor(utilsService.encodeUserCursor(onTheSecond))).isEqualTo(onTheSecond);
+    }
+
+    @Test
+    void encodesUrlSafely() {
+        assertThat(utilsService.encodeUserCursor(cursor)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String malformed : new String[]{"", "not base64!", "a.b"}) {
+            assertThatThrownBy(() -> utilsService.decodeUserCursor(malformed))
+                    .as(malformed)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsUnparseableContent() {
+        for (String raw : new String[]{"no separator", "yesterday|" + cursor.getUserId(), cursor.getCreationDate() + "|42"}) {
+            assertThatThrownBy(() -> utilsService.decodeUserCursor(base64(raw)))
+                    .as(raw)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
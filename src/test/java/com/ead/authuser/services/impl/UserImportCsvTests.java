@@ -0,0 +1,71 @@
+package com.ead.authuser.services.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ead.authuser.services.impl.UserImportServiceImpl.splitCsvLine;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserImportCsvTests {
+
+    @Test
+    void splitsPlainFields() {
+        assertThat(splitCsvLine("alice,alice@ead.com,secret123")).containsExactly("alice", "alice@ead.com", "secret123");
+    }
+
+    @Test
+    void keepsEmptyFieldsIncludingLeadingAndTrailing() {
+        assertThat(splitCsvLine("alice,,secret123")).containsExactly("alice", "", "secret123");
+        assertThat(splitCsvLine(",alice,")).containsExactly("", "alice", "");
+        assertThat(splitCsvLine("")).containsExactly("");
+    }
+
+    @Test
+    void keepsCommasInsideQuotedFields() {
+        assertThat(splitCsvLine("alice,\"Smith, Alice\",secret123"))
+                .containsExactly("alice", "Smith, Alice", "secret123");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        assertThat(splitCsvLine("\"Alice \"\"Al\"\" Smith\",x")).containsExactly("Alice \"Al\" Smith", "x");
+        assertThat(splitCsvLine("\"\"\"\"")).containsExactly("\"");
+    }
+
+    @Test
+    void quotedEmptyFieldIsEmpty() {
+        assertThat(splitCsvLine("alice,\"\",x")).containsExactly("alice", "", "x");
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThatThrownBy(() -> splitCsvLine("alice,\"Smith, Alice"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unterminated quoted field");
+    }
+
+    @Test
+    void crlfLineEndingsDoNotLeakIntoTheLastField() throws IOException {
+        String csv = "username,email,fullName\r\nalice,alice@ead.com,\"Smith, Alice\"\r\nbob,bob@ead.com,\r\n";
+        List<List<String>> rows = new ArrayList<>();
+
+        // the import reads lines the same way, BufferedReader.readLine drops \r\n as well as \n
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(splitCsvLine(line));
+            }
+        }
+
+        assertThat(rows).containsExactly(
+                List.of("username", "email", "fullName"),
+                List.of("alice", "alice@ead.com", "Smith, Alice"),
+                List.of("bob", "bob@ead.com", ""));
+    }
+}